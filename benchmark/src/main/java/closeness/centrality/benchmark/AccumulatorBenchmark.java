@@ -0,0 +1,124 @@
+package closeness.centrality.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per level prefix sum step of the buffer update queries, with the int distance sums the engines used to keep
+ * and the long sums they keep now. The step runs once per BFS level over all the snapshots, so its cost is the
+ * whole overhead of the wider accumulators, see rangeBufferUpdate of InsertionOnlyBenchmark for a full query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+public class AccumulatorBenchmark {
+
+	@Param({"16", "256", "4096"})
+	public int numSnapshots;
+
+	// Levels of a BFS on a small world graph
+	@Param({"12"})
+	public int numLevels;
+
+	private int[][] verticesPerTimestamp;
+	private int[][] startingPoints;
+	private int[][] endingPoints;
+
+	private int[] intDistances;
+	private long[] longDistances;
+	private int[] sccSize;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+
+		this.verticesPerTimestamp = new int[this.numLevels][this.numSnapshots];
+		this.startingPoints = new int[this.numLevels][this.numSnapshots];
+		this.endingPoints = new int[this.numLevels][this.numSnapshots];
+
+		for (int level = 0; level < this.numLevels; level++) {
+			for (int i = 0; i < this.numSnapshots; i++) {
+				this.verticesPerTimestamp[level][i] = random.nextInt(64);
+				this.startingPoints[level][i] = random.nextInt(16);
+				this.endingPoints[level][i] = random.nextInt(16);
+			}
+		}
+
+		this.intDistances = new int[this.numSnapshots];
+		this.longDistances = new long[this.numSnapshots];
+		this.sccSize = new int[this.numSnapshots];
+	}
+
+	@Benchmark
+	public int[] intAccumulators() {
+		Arrays.fill(this.intDistances, 0);
+		Arrays.fill(this.sccSize, 0);
+
+		for (int level = 0; level < this.numLevels; level++) {
+			int[] vertices = this.verticesPerTimestamp[level];
+			int[] starting = this.startingPoints[level];
+			int[] ending = this.endingPoints[level];
+
+			int localSummary = vertices[0];
+			int positiveCount = starting[0] - ending[0];
+
+			this.intDistances[0] += level * (localSummary + positiveCount);
+			this.sccSize[0] += (localSummary + positiveCount);
+
+			for (int i = 1; i < this.numSnapshots; i++) {
+				localSummary += vertices[i];
+				positiveCount += starting[i] - ending[i];
+
+				this.intDistances[i] += level * (localSummary + positiveCount);
+				this.sccSize[i] += (localSummary + positiveCount);
+			}
+		}
+
+		return this.intDistances;
+	}
+
+	@Benchmark
+	public long[] longAccumulators() {
+		Arrays.fill(this.longDistances, 0);
+		Arrays.fill(this.sccSize, 0);
+
+		for (int level = 0; level < this.numLevels; level++) {
+			int[] vertices = this.verticesPerTimestamp[level];
+			int[] starting = this.startingPoints[level];
+			int[] ending = this.endingPoints[level];
+
+			int localSummary = vertices[0];
+			int positiveCount = starting[0] - ending[0];
+
+			this.longDistances[0] += (long) level * (localSummary + positiveCount);
+			this.sccSize[0] += (localSummary + positiveCount);
+
+			for (int i = 1; i < this.numSnapshots; i++) {
+				localSummary += vertices[i];
+				positiveCount += starting[i] - ending[i];
+
+				this.longDistances[i] += (long) level * (localSummary + positiveCount);
+				this.sccSize[i] += (localSummary + positiveCount);
+			}
+		}
+
+		return this.longDistances;
+	}
+
+}
@@ -0,0 +1,69 @@
+package closeness.centrality.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import closeness.centrality.deletion.TimeEvolvingGraphDecremental;
+
+/**
+ * Single source queries of the decremental engine, graphs with edge insertions and deletions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DecrementalBenchmark {
+
+	@Param({"10000", "100000"})
+	public int numVertices;
+
+	@Param({"8"})
+	public int averageDegree;
+
+	@Param({"16"})
+	public int numSnapshots;
+
+	@Param({SyntheticGraph.UNIFORM, SyntheticGraph.SKEWED, SyntheticGraph.RMAT})
+	public String distribution;
+
+	private TimeEvolvingGraphDecremental graph;
+	private Sources sources;
+
+	@Setup
+	public void setup() throws IOException {
+		String path = new SyntheticGraph(this.numVertices, this.averageDegree, this.numSnapshots, this.distribution, 42).writeIntervals();
+		this.graph = new TimeEvolvingGraphDecremental();
+		this.graph.constructGraph(path);
+		this.sources = new Sources(this.graph.getNumVertices(), 7);
+	}
+
+	@Benchmark
+	public double[] rangeBased() {
+		return this.graph.getCentralityRangeBased(this.sources.next());
+	}
+
+	@Benchmark
+	public double[] dynamicIncremental() {
+		return this.graph.getCentralityDynamicIncremental(this.sources.next());
+	}
+
+	@Benchmark
+	public double[] snapshotBased() {
+		return this.graph.getCentralitySnapshotBased(this.sources.next());
+	}
+
+}
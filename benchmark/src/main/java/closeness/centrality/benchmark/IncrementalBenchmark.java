@@ -0,0 +1,74 @@
+package closeness.centrality.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import closeness.centrality.insertion.TimeEvolvingGraphIncremental;
+
+/**
+ * Single source queries of the incremental engine, graphs with edge insertions only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class IncrementalBenchmark {
+
+	@Param({"10000", "100000"})
+	public int numVertices;
+
+	@Param({"8"})
+	public int averageDegree;
+
+	@Param({"16"})
+	public int numSnapshots;
+
+	@Param({SyntheticGraph.UNIFORM, SyntheticGraph.SKEWED, SyntheticGraph.RMAT})
+	public String distribution;
+
+	private TimeEvolvingGraphIncremental graph;
+	private Sources sources;
+
+	@Setup
+	public void setup() throws IOException {
+		String path = new SyntheticGraph(this.numVertices, this.averageDegree, this.numSnapshots, this.distribution, 42).writeInsertions();
+		this.graph = new TimeEvolvingGraphIncremental();
+		this.graph.constructGraph(path);
+		this.sources = new Sources(this.graph.getNumVertices(), 7);
+	}
+
+	@Benchmark
+	public double[] rangeBasedV1() {
+		return this.graph.getCentralityRangeBased_v1(this.sources.next());
+	}
+
+	@Benchmark
+	public double[] rangeBasedV2() {
+		return this.graph.getCentralityRangeBased_v2(this.sources.next());
+	}
+
+	@Benchmark
+	public double[] rangeBasedV3() {
+		return this.graph.getCentralityRangeBased_v3(this.sources.next());
+	}
+
+	@Benchmark
+	public double[] dynamicIncremental() {
+		return this.graph.getCentralityDynamicIncremental(this.sources.next());
+	}
+
+}
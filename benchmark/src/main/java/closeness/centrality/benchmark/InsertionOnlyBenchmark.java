@@ -0,0 +1,114 @@
+package closeness.centrality.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import closeness.centrality.topk.TimeEvolvingGraphInsertionOnly;
+import closeness.centrality.topk.VertexCentrality;
+
+/**
+ * Single source queries and top k drivers of the insertion only engine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class InsertionOnlyBenchmark {
+
+	@Param({"10000", "100000"})
+	public int numVertices;
+
+	@Param({"8"})
+	public int averageDegree;
+
+	@Param({"16"})
+	public int numSnapshots;
+
+	@Param({SyntheticGraph.UNIFORM, SyntheticGraph.SKEWED, SyntheticGraph.RMAT})
+	public String distribution;
+
+	// Sources of the top k drivers, a full run over every vertex takes minutes
+	@Param({"256"})
+	public int numTopKSources;
+
+	private TimeEvolvingGraphInsertionOnly graph;
+	private Sources sources;
+	private int[] batch;
+
+	@Setup
+	public void setup() throws IOException {
+		String path = new SyntheticGraph(this.numVertices, this.averageDegree, this.numSnapshots, this.distribution, 42).writeInsertions();
+		this.graph = new TimeEvolvingGraphInsertionOnly();
+		this.graph.constructGraph(path, false);
+		this.sources = new Sources(this.graph.getNumVertices(), 7);
+		this.batch = this.sources.toArray();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.graph.close();
+	}
+
+	@Benchmark
+	public double[] rangeBased() {
+		return this.graph.getCentralityRangeBased(this.sources.next());
+	}
+
+	@Benchmark
+	public double[] rangeBufferUpdate() {
+		return this.graph.getCentralityRangeBufferUpdate(this.sources.next());
+	}
+
+	/**
+	 * All the sampled sources in one call, compare with rangeBufferUpdate times the batch size.
+	 */
+	@Benchmark
+	public double[][] multiSourceBatch() {
+		return this.graph.getCentralityMultiSource(this.batch);
+	}
+
+	@Benchmark
+	public double[] rangeSetBased() {
+		return this.graph.getCentralityRangeSetBased(this.sources.next());
+	}
+
+	@Benchmark
+	public double[] snapshotBased() {
+		return this.graph.getCentralitySnapshotBased(this.sources.next(), true);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3)
+	@Measurement(iterations = 5)
+	public List<List<VertexCentrality>> topKBruteForce() {
+		return this.graph.getTopKBruteForce(10, this.numTopKSources);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3)
+	@Measurement(iterations = 5)
+	public List<List<VertexCentrality>> topKPruned() {
+		return this.graph.getTopKCentralityPruned(10, this.numTopKSources);
+	}
+
+}
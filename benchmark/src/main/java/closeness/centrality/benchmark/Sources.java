@@ -0,0 +1,41 @@
+package closeness.centrality.benchmark;
+
+import java.util.Random;
+
+/**
+ * Query sources of the single source benchmarks, cycled through in a fixed order.
+ */
+class Sources {
+
+	// Enough sources to average over the degree distribution
+	private static final int NUM_SOURCES = 64;
+
+	private final int[] sources;
+	private int next;
+
+	/**
+	 * The sample only depends on the seed, so every fork queries the same sources in the same order.
+	 */
+	Sources(int numVertices, long seed) {
+		Random random = new Random(seed);
+		this.sources = new int[Math.min(NUM_SOURCES, numVertices)];
+		for (int i = 0; i < this.sources.length; i++) {
+			this.sources[i] = random.nextInt(numVertices);
+		}
+		this.next = 0;
+	}
+
+	/**
+	 * The whole sample, a batch for the multi source queries.
+	 */
+	int[] toArray() {
+		return this.sources.clone();
+	}
+
+	int next() {
+		int source = this.sources[this.next];
+		this.next = (this.next + 1) % this.sources.length;
+		return source;
+	}
+
+}
@@ -0,0 +1,106 @@
+package closeness.centrality.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import closeness.centrality.generator.RmatGenerator;
+
+/**
+ * Seeded random edge lists for the benchmarks, in the formats read by the engines.
+ */
+public class SyntheticGraph {
+
+	public static final String UNIFORM = "uniform";
+	public static final String SKEWED = "skewed";
+	public static final String RMAT = "rmat";
+
+	private final int numVertices;
+	private final int averageDegree;
+	private final int numEdges;
+	private final int numSnapshots;
+	private final String distribution;
+	private final long seed;
+
+	public SyntheticGraph(int numVertices, int averageDegree, int numSnapshots, String distribution, long seed) {
+		if (!UNIFORM.equals(distribution) && !SKEWED.equals(distribution) && !RMAT.equals(distribution)) {
+			throw new IllegalArgumentException("Unknown degree distribution " + distribution + ".");
+		}
+		this.numVertices = numVertices;
+		this.averageDegree = averageDegree;
+		this.numEdges = (int) Math.min((long) numVertices * averageDegree, (long) numVertices * (numVertices - 1));
+		this.numSnapshots = numSnapshots;
+		this.distribution = distribution;
+		this.seed = seed;
+	}
+
+	/**
+	 * Writes "source,target,timestamp" lines to a temporary file.
+	 */
+	public String writeInsertions() throws IOException {
+		return this.write(false);
+	}
+
+	/**
+	 * Writes "source,target,startTime,endTime" lines to a temporary file.
+	 */
+	public String writeIntervals() throws IOException {
+		return this.write(true);
+	}
+
+	private String write(boolean withEndTimes) throws IOException {
+
+		File file = File.createTempFile("teg-" + this.distribution + "-", ".txt");
+		file.deleteOnExit();
+
+		if (RMAT.equals(this.distribution)) {
+			// The smallest power of two holding the vertices, R-MAT leaves some of them isolated
+			int scale = Math.max(1, 32 - Integer.numberOfLeadingZeros(this.numVertices - 1));
+			RmatGenerator generator = new RmatGenerator(scale, this.averageDegree, this.numSnapshots, this.seed);
+			generator.setLifetime(withEndTimes ? 0.5 : 0);
+			generator.writeEdgeList(file.getPath());
+			return file.getPath();
+		}
+
+		Random random = new Random(this.seed);
+		Set<Long> edges = new HashSet<Long>(this.numEdges * 2);
+
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+
+			while (edges.size() < this.numEdges) {
+
+				int source = this.nextVertex(random);
+				int target = this.nextVertex(random);
+				if (source == target || !edges.add((long) source * this.numVertices + target)) {
+					continue;
+				}
+
+				int startTime = random.nextInt(this.numSnapshots);
+				writer.write(source + "," + target + "," + startTime);
+				if (withEndTimes) {
+					writer.write("," + (startTime + random.nextInt(this.numSnapshots - startTime)));
+				}
+				writer.newLine();
+
+			}
+
+		}
+
+		return file.getPath();
+
+	}
+
+	private int nextVertex(Random random) {
+		if (UNIFORM.equals(this.distribution)) {
+			return random.nextInt(this.numVertices);
+		}
+		// Cubing concentrates the endpoints on the low ids, giving a few hubs and a long tail
+		double u = random.nextDouble();
+		return (int) (this.numVertices * u * u * u);
+	}
+
+}
@@ -0,0 +1,176 @@
+package closeness.centrality.cli;
+
+import java.io.IOException;
+import java.util.List;
+
+import closeness.centrality.deletion.TimeEvolvingGraphDecremental;
+import closeness.centrality.entity.IdMapping;
+import closeness.centrality.generator.RmatGenerator;
+import closeness.centrality.io.EdgeListReader;
+import closeness.centrality.io.TegFile;
+import closeness.centrality.topk.TimeEvolvingGraphInsertionOnly;
+import closeness.centrality.topk.VertexCentrality;
+
+/**
+ * Command line runner of the engines. Graph arguments ending in ".teg" are read as binary TEG files,
+ * anything else as comma separated edge lists.
+ */
+public class Main {
+
+	private static final String USAGE = String.join(System.lineSeparator(),
+			"Usage:",
+			"  convert insertions|intervals <edge list> <teg file>   Converts an edge list to a binary TEG file",
+			"  centrality insertions|intervals <graph> <vertex id>    Prints the centrality of the vertex in every snapshot",
+			"  topk <graph> <k> [max sources]                         Prints the top k vertices of every snapshot",
+			"  generate <scale> <edge factor> <snapshots> <output> [uniform|bursty] [lifetime] [seed]",
+			"                                                         Writes an R-MAT graph, with end times if lifetime > 0");
+
+	public static void main(String[] args) {
+
+		if (args.length == 0) {
+			usage();
+		}
+
+		try {
+			switch (args[0]) {
+			case "convert":
+				requireArgs(args, 4);
+				convert(args[1], args[2], args[3]);
+				break;
+			case "centrality":
+				requireArgs(args, 4);
+				centrality(args[1], args[2], Long.parseLong(args[3]));
+				break;
+			case "topk":
+				requireArgs(args, 3);
+				topK(args[1], Integer.parseInt(args[2]), args.length > 3 ? Integer.parseInt(args[3]) : Integer.MAX_VALUE);
+				break;
+			case "generate":
+				requireArgs(args, 5);
+				generate(args);
+				break;
+			default:
+				usage();
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("Not a number: " + e.getMessage());
+			usage();
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+
+	}
+
+	private static void convert(String format, String input, String output) throws IOException {
+		TegFile file = isIntervals(format) ? EdgeListReader.readIntervals(input) : EdgeListReader.readInsertions(input, false);
+		file.write(output);
+	}
+
+	private static void centrality(String format, String path, long vertexId) {
+
+		IdMapping ids;
+		double[] centralities;
+
+		if (isIntervals(format)) {
+			TimeEvolvingGraphDecremental graph = new TimeEvolvingGraphDecremental();
+			if (isBinary(path)) {
+				graph.constructGraphFromBinary(path);
+			} else {
+				graph.constructGraph(path);
+			}
+			ids = graph.getIds();
+			centralities = graph.getCentralityRangeBased(toVertex(ids, vertexId));
+		} else {
+			try (TimeEvolvingGraphInsertionOnly graph = loadInsertionOnly(path)) {
+				ids = graph.getIds();
+				centralities = graph.getCentralityRangeBased(toVertex(ids, vertexId));
+			}
+		}
+
+		for (int i = 0; i < centralities.length; i++) {
+			System.out.println(ids.getTimestamp(i) + "," + centralities[i]);
+		}
+
+	}
+
+	private static void topK(String path, int k, int maxSources) {
+
+		try (TimeEvolvingGraphInsertionOnly graph = loadInsertionOnly(path)) {
+			List<List<VertexCentrality>> topKs = graph.getTopKBruteForce(k, maxSources);
+
+			for (int i = 0; i < topKs.size(); i++) {
+				List<VertexCentrality> topK = topKs.get(i);
+				for (int rank = 0; rank < topK.size(); rank++) {
+					System.out.println(graph.getIds().getTimestamp(i) + "," + (rank + 1) + "," + topK.get(rank).getId() + "," + topK.get(rank).getCentrality());
+				}
+			}
+		}
+
+	}
+
+	private static void generate(String[] args) throws IOException {
+
+		RmatGenerator generator = new RmatGenerator(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), args.length > 7 ? Long.parseLong(args[7]) : 0);
+		if (args.length > 5) {
+			if (!args[5].equals("uniform") && !args[5].equals("bursty")) {
+				System.err.println("Unknown timestamps " + args[5] + ".");
+				usage();
+			}
+			generator.setTimestamps(args[5].equals("bursty") ? RmatGenerator.Timestamps.BURSTY : RmatGenerator.Timestamps.UNIFORM);
+		}
+		if (args.length > 6) {
+			generator.setLifetime(Double.parseDouble(args[6]));
+		}
+
+		if (isBinary(args[4])) {
+			generator.writeBinary(args[4]);
+		} else {
+			generator.writeEdgeList(args[4]);
+		}
+
+	}
+
+	private static TimeEvolvingGraphInsertionOnly loadInsertionOnly(String path) {
+		TimeEvolvingGraphInsertionOnly graph = new TimeEvolvingGraphInsertionOnly();
+		if (isBinary(path)) {
+			graph.constructGraphFromBinary(path, false);
+		} else {
+			graph.constructGraph(path, false);
+		}
+		return graph;
+	}
+
+	private static int toVertex(IdMapping ids, long vertexId) {
+		int vertex = ids.getVertex(vertexId);
+		if (vertex == -1) {
+			System.err.println("Vertex " + vertexId + " is not in the graph.");
+			System.exit(1);
+		}
+		return vertex;
+	}
+
+	private static boolean isIntervals(String format) {
+		if (!format.equals("insertions") && !format.equals("intervals")) {
+			System.err.println("Unknown format " + format + ".");
+			usage();
+		}
+		return format.equals("intervals");
+	}
+
+	private static boolean isBinary(String path) {
+		return path.endsWith(".teg");
+	}
+
+	private static void requireArgs(String[] args, int count) {
+		if (args.length < count) {
+			usage();
+		}
+	}
+
+	private static void usage() {
+		System.err.println(USAGE);
+		System.exit(1);
+	}
+
+}
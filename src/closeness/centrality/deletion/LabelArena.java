@@ -0,0 +1,158 @@
+package closeness.centrality.deletion;
+
+import java.util.Arrays;
+
+/**
+ * Distance labels of all the vertices of one range based query, packed as int triples (start, end, distance) in a
+ * single arena. The labels of a vertex are disjoint and sorted by start time, they take a contiguous segment of the
+ * arena that moves to the end of the arena, twice as large, when it is full.
+ *
+ * Labels are only added in order of distance, so merging a new interval only fills the times no label covers yet.
+ * The merge works in place and allocates nothing unless the segment has to grow.
+ */
+final class LabelArena {
+
+	private static final int FIELDS = 3;
+
+	private int[] arena;
+	private int top;
+
+	private final int[] offsets;
+	private final int[] sizes;
+	private final int[] capacities;
+
+	LabelArena(int numVertices) {
+		this.arena = new int[Math.max(FIELDS * numVertices, 16)];
+		this.top = 0;
+
+		this.offsets = new int[numVertices];
+		this.sizes = new int[numVertices];
+		this.capacities = new int[numVertices];
+	}
+
+	int size(int vertex) {
+		return this.sizes[vertex];
+	}
+
+	int start(int vertex, int index) {
+		return this.arena[this.offsets[vertex] + FIELDS * index];
+	}
+
+	int end(int vertex, int index) {
+		return this.arena[this.offsets[vertex] + FIELDS * index + 1];
+	}
+
+	int distance(int vertex, int index) {
+		return this.arena[this.offsets[vertex] + FIELDS * index + 2];
+	}
+
+	/**
+	 * Labels the times from start to end that no label of the vertex covers yet with the distance, which must not be
+	 * smaller than the distances of the vertex so far. Each new label is added to the queue.
+	 * Returns the number of new labels.
+	 */
+	int merge(int vertex, int start, int end, int distance, LabelQueue added) {
+
+		int size = this.sizes[vertex];
+		int base = this.offsets[vertex];
+
+		// First label ending at or after start, the ends are sorted like the starts
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (this.arena[base + FIELDS * middle + 1] < start) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		int first = low;
+
+		// Count the uncovered gaps among the labels overlapping the interval
+		int last = first;
+		int gaps = 0;
+		int uncovered = start;
+		while (last < size && this.arena[base + FIELDS * last] <= end) {
+			if (this.arena[base + FIELDS * last] > uncovered) {
+				gaps++;
+			}
+			uncovered = this.arena[base + FIELDS * last + 1] + 1;
+			last++;
+		}
+		if (uncovered <= end) {
+			gaps++;
+		}
+
+		if (gaps == 0) {
+			return 0;
+		}
+
+		this.ensureCapacity(vertex, size + gaps);
+		base = this.offsets[vertex];
+
+		// Make room after the overlapping labels, then interleave them with the gaps from the right
+		System.arraycopy(this.arena, base + FIELDS * last, this.arena, base + FIELDS * (last + gaps), FIELDS * (size - last));
+
+		int target = last + gaps - 1;
+		uncovered = end;
+		for (int i = last - 1; i >= first; i--) {
+
+			int labelStart = this.arena[base + FIELDS * i];
+			int labelEnd = this.arena[base + FIELDS * i + 1];
+
+			if (labelEnd < uncovered) {
+				this.set(base, target--, labelEnd + 1, uncovered, distance);
+				added.add(vertex, labelEnd + 1, uncovered);
+			}
+
+			this.set(base, target--, labelStart, labelEnd, this.arena[base + FIELDS * i + 2]);
+			uncovered = labelStart - 1;
+
+		}
+		if (uncovered >= start) {
+			this.set(base, target, start, uncovered, distance);
+			added.add(vertex, start, uncovered);
+		}
+
+		this.sizes[vertex] = size + gaps;
+		return gaps;
+
+	}
+
+	private void set(int base, int index, int start, int end, int distance) {
+		int position = base + FIELDS * index;
+		this.arena[position] = start;
+		this.arena[position + 1] = end;
+		this.arena[position + 2] = distance;
+	}
+
+	private void ensureCapacity(int vertex, int size) {
+
+		int capacity = this.capacities[vertex];
+		if (size <= capacity) {
+			return;
+		}
+
+		int newCapacity = Math.max(Math.max(2, 2 * capacity), size);
+		int offset = this.offsets[vertex];
+
+		// The last segment of the arena grows in place
+		boolean atTop = capacity > 0 && offset + FIELDS * capacity == this.top;
+		int newOffset = atTop ? offset : this.top;
+		int newTop = Math.addExact(newOffset, Math.multiplyExact(FIELDS, newCapacity));
+
+		if (newTop > this.arena.length) {
+			this.arena = Arrays.copyOf(this.arena, (int) Math.max(newTop, Math.min(2L * this.arena.length, Integer.MAX_VALUE - 8)));
+		}
+		if (!atTop) {
+			System.arraycopy(this.arena, offset, this.arena, newOffset, FIELDS * this.sizes[vertex]);
+		}
+
+		this.offsets[vertex] = newOffset;
+		this.capacities[vertex] = newCapacity;
+		this.top = newTop;
+
+	}
+
+}
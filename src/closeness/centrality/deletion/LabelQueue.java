@@ -0,0 +1,56 @@
+package closeness.centrality.deletion;
+
+/**
+ * Labels of one BFS level of a range based query, as parallel (vertex, start, end) entries in a single int array.
+ * The distance is the level itself, so it is not stored.
+ */
+final class LabelQueue {
+
+	private static final int FIELDS = 3;
+
+	private int[] entries;
+	private int size;
+
+	LabelQueue() {
+		this.entries = new int[FIELDS * 16];
+		this.size = 0;
+	}
+
+	void add(int vertex, int start, int end) {
+		int position = FIELDS * this.size;
+		if (position == this.entries.length) {
+			int[] larger = new int[this.entries.length * 2];
+			System.arraycopy(this.entries, 0, larger, 0, position);
+			this.entries = larger;
+		}
+		this.entries[position] = vertex;
+		this.entries[position + 1] = start;
+		this.entries[position + 2] = end;
+		this.size++;
+	}
+
+	int vertex(int index) {
+		return this.entries[FIELDS * index];
+	}
+
+	int start(int index) {
+		return this.entries[FIELDS * index + 1];
+	}
+
+	int end(int index) {
+		return this.entries[FIELDS * index + 2];
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	void clear() {
+		this.size = 0;
+	}
+
+}
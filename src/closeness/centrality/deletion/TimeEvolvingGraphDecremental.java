@@ -1,21 +1,18 @@
 package closeness.centrality.deletion;
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import closeness.centrality.entity.EdgeWithTimeInterval;
-import closeness.centrality.entity.Label;
+import closeness.centrality.entity.CondensedGraph;
+import closeness.centrality.entity.DeltaIndex;
+import closeness.centrality.entity.IdMapping;
+import closeness.centrality.entity.SSSPForest;
 import closeness.centrality.entity.SSSPTree;
-import closeness.centrality.entity.TimeInterval;
+import closeness.centrality.io.EdgeListReader;
+import closeness.centrality.io.TegFile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,9 +21,12 @@ public class TimeEvolvingGraphDecremental {
 	
 	private int numVertices;
 	private int numSnapshots;
-	private List<List<EdgeWithTimeInterval>> condensedGraph;
-	private List<Map<Integer, Set<Integer>>> deltaGraphIncremental;
-	private List<Map<Integer, Set<Integer>>> deltaGraphDecremental;	
+	private CondensedGraph condensedGraph;
+	private DeltaIndex insertionIndex; // Edges by start time
+	private DeltaIndex deletionIndex; // Edges by end time
+	private IdMapping ids = IdMapping.IDENTITY;
+	
+	private int parallelism = Runtime.getRuntime().availableProcessors();
 	
 	final private Logger logger = LoggerFactory.getLogger(TimeEvolvingGraphDecremental.class);
 	
@@ -38,220 +38,93 @@ public class TimeEvolvingGraphDecremental {
 		return this.numSnapshots;
 	}
 	
+	/**
+	 * Raw vertex ids and timestamps of the loaded file by vertex and snapshot.
+	 */
+	public IdMapping getIds() {
+		return this.ids;
+	}
+	
+	public int getParallelism() {
+		return this.parallelism;
+	}
+	
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism + ".");
+		}
+		this.parallelism = parallelism;
+	}
+	
 	public void constructGraph(String path) {
 
 		logger.debug("+constructGraph({})", path);
 		
-		Set<Integer> vertices = new HashSet<Integer>();
-		Set<Integer> timestamps = new HashSet<Integer>();
+		try {
+			this.loadGraph(EdgeListReader.readIntervals(path, this.parallelism));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 		
-		Map<Integer, Map<Integer, EdgeWithTimeInterval>> condensed = new HashMap<Integer, Map<Integer, EdgeWithTimeInterval>>() ;
+		logger.debug("-constructGraph({})", path);
+
+	}
+	
+	public void constructGraphFromBinary(String path) {
 		
-		Map<Integer, Map<Integer, Set<Integer>>> snapshotsIncremental = new HashMap<Integer, Map<Integer, Set<Integer>>>();
-		Map<Integer, Map<Integer, Set<Integer>>> snapshotsDecremental = new HashMap<Integer, Map<Integer, Set<Integer>>>();
+		logger.debug("+constructGraphFromBinary({})", path);
 		
-		try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-		    String line;
-		    String[] parts;
-
-		    int numLines = 0;
-		    
-		    while ((line = br.readLine()) != null) {
-		    	
-		    	numLines++;
-		    	if (numLines % 1000000 == 0) {
-					logger.debug("Reading line {}...", numLines);
-				}
-		    	
-		    	parts = line.split(",");
-		    	int source = Integer.valueOf(parts[0]);
-		    	int target = Integer.valueOf(parts[1]);
-		    	int startTime = Integer.valueOf(parts[2]);
-		    	int endTime = Integer.valueOf(parts[3]);
-		    	
-		    	vertices.add(source);
-		    	vertices.add(target);
-		    	timestamps.add(startTime);
-		    	timestamps.add(endTime);
-		    	
-		    	// Update deltaGraph
-	    		if (snapshotsIncremental.containsKey(startTime)) {
-		    		Map<Integer, Set<Integer>> snapshot = snapshotsIncremental.get(startTime);
-		    		
-		    		if (snapshot.containsKey(source)) {
-		    			if (snapshot.get(source).contains(target)) {
-		    				logger.error("Duplicate edge found ({}, {}, {})", source, target, startTime);
-		    				System.exit(1);
-		    			} else {
-		    				snapshot.get(source).add(target);
-		    			}
-		    		} else {
-		    			Set<Integer> outgoingVertices = new HashSet<Integer>();
-		    			outgoingVertices.add(target);
-		    			snapshot.put(source, outgoingVertices);
-		    		}
-		    	} else {
-		    		Set<Integer> outgoingVertices = new HashSet<Integer>();
-	    			outgoingVertices.add(target);
-		    		Map<Integer, Set<Integer>> snapshot = new HashMap<Integer, Set<Integer>>();
-	    			snapshot.put(source, outgoingVertices);
-	    			snapshotsIncremental.put(startTime, snapshot);
-		    	}
-	    		
-	    		if (snapshotsDecremental.containsKey(endTime)) {
-		    		Map<Integer, Set<Integer>> snapshot = snapshotsDecremental.get(endTime);
-		    		
-		    		if (snapshot.containsKey(source)) {
-		    			if (snapshot.get(source).contains(target)) {
-		    				logger.error("Duplicate edge found ({}, {}, {})", source, target, endTime);
-		    				System.exit(1);
-		    			} else {
-		    				snapshot.get(source).add(target);
-		    			}
-		    		} else {
-		    			Set<Integer> outgoingVertices = new HashSet<Integer>();
-		    			outgoingVertices.add(target);
-		    			snapshot.put(source, outgoingVertices);
-		    		}
-		    	} else {
-		    		Set<Integer> outgoingVertices = new HashSet<Integer>();
-	    			outgoingVertices.add(target);
-		    		Map<Integer, Set<Integer>> snapshot = new HashMap<Integer, Set<Integer>>();
-	    			snapshot.put(source, outgoingVertices);
-	    			snapshotsDecremental.put(endTime, snapshot);
-		    	}
-	    		
-		    	// Update condensedGraph
-		    	if (condensed.containsKey(source)) {
-		    		
-		    		Map<Integer, EdgeWithTimeInterval> outgoingEdges = condensed.get(source);
-		    		
-		    		if (outgoingEdges.containsKey(target)) {
-		    			logger.error("Duplicate edges found ({}, {})}.", source, target);
-		    			System.exit(1);
-		    		} else {
-		    			outgoingEdges.put(target, new EdgeWithTimeInterval(target, new TimeInterval(startTime, endTime)));
-		    		}
-		    		
-		    	} else {
-		    		Map<Integer, EdgeWithTimeInterval> outgoingEdges = new HashMap<Integer, EdgeWithTimeInterval>();
-		    		outgoingEdges.put(target, new EdgeWithTimeInterval(target, new TimeInterval(startTime, endTime)));
-		    		condensed.put(source, outgoingEdges);
-		    	}
-		    	
-		    }
-		    
-			int minVertexId = Integer.MAX_VALUE;
-			int maxVertexId = 0;
-			int minTimestamp = Integer.MAX_VALUE;
-			int maxTimestamp = 0;
-			
-			for (int v: vertices) {
-				if (v < minVertexId) {
-					minVertexId = v;
-				}
-				if (v > maxVertexId) {
-					maxVertexId = v;
-				}
-			}
-			
-			for (int t: timestamps) {
-				if (t < minTimestamp) {
-					minTimestamp = t;
-				}
-				if (t > maxTimestamp) {
-					maxTimestamp = t;
-				}
-			}
-			
-			logger.info("Number of edges is {}.", numLines);
-			logger.info("Number of vertices is {}.", vertices.size());
-			logger.info("Number of snapshots is {}.", timestamps.size());
-			
-			if (minVertexId != 0) {
-				logger.error("Min vertex id is {}.", minVertexId);
-			}
-			
-			if (minTimestamp != 0) {
-				logger.error("Min timestamp is {}.", minTimestamp);
-			}
-			
-			if (maxVertexId - minVertexId + 1 != vertices.size()) {
-				logger.error("Vertex id normalization error. Max vertex id is {}.", maxVertexId);
-				System.exit(1);
-			}
-
-			if (maxTimestamp - minTimestamp + 1 != timestamps.size()) {
-				logger.error("Timestamp id normalization error. Max timestamp id is {}.", maxTimestamp);
-				System.exit(1);
-			}
-			
-			this.numVertices = vertices.size();
-			this.numSnapshots = timestamps.size();
-
-			int ts1 = snapshotsIncremental.size();
-			int ts2 = snapshotsDecremental.size();
-			
-			Set<Integer> keys = snapshotsDecremental.keySet();
-			List<Integer> keyList = new ArrayList<Integer>(keys);
-			Collections.sort(keyList);
-//			System.out.println("Min key for snapshotDecremental: " + keyList.get(0));
-//			System.out.println("Max key for snapshotDecremental: " + keyList.get(keyList.size() - 1));
-
-			
-//			logger.debug("Number of snapshots for edge insertions: {}.", ts1);
-//			logger.debug("Number of snapshots for edge deletions: {}.", ts2);
-			
-			// Build array-based snapshot graph
-			this.deltaGraphIncremental = new ArrayList<Map<Integer, Set<Integer>>>(numSnapshots);
-			this.deltaGraphDecremental = new ArrayList<Map<Integer, Set<Integer>>>(numSnapshots);
-			
-			for (int i = 0; i < numSnapshots - 1; i++) {
-				Map<Integer, Set<Integer>> deltaIncremental = snapshotsIncremental.get(i);
-				if (deltaIncremental != null) {
-					this.deltaGraphIncremental.add(deltaIncremental);
-				} else {
-					logger.error("No edge insertions at time {}.", i);
-					this.deltaGraphIncremental.add(new HashMap<Integer, Set<Integer>>());
-				}
-				
-				Map<Integer, Set<Integer>> deltaDecremental = snapshotsDecremental.get(i + 1);
-				if (deltaDecremental != null) {
-					this.deltaGraphDecremental.add(deltaDecremental);
-				} else {
-					logger.error("No edge deletions at time {}.", i + 1);
-					this.deltaGraphDecremental.add(new HashMap<Integer, Set<Integer>>());
-				}
-				
-			}
-			
-			// Build array-based condensed graph
-			this.condensedGraph = new ArrayList<List<EdgeWithTimeInterval>>(this.numVertices);
-			for (int i = 0; i < this.numVertices; i++) {
-				if (!condensed.containsKey(i)) {
-					this.condensedGraph.add(new ArrayList<EdgeWithTimeInterval>());
-					continue;
-				}
-				
-				Map<Integer, EdgeWithTimeInterval> outgoingEdgesMap = condensed.get(i);
-				List<EdgeWithTimeInterval> outgoingEdgesList = new ArrayList<EdgeWithTimeInterval>(outgoingEdgesMap.size());
-				for (Integer target: outgoingEdgesMap.keySet()) {
-					EdgeWithTimeInterval e = outgoingEdgesMap.get(target);
-					outgoingEdgesList.add(e);
-				}
-				
-				Collections.sort(outgoingEdgesList);
-				this.condensedGraph.add(outgoingEdgesList);
-			}
-			
-		} catch (FileNotFoundException e) {
+		try {
+			this.loadGraph(TegFile.read(path));
+		} catch (IOException e) {
 			e.printStackTrace();
+		}
+		
+		logger.debug("-constructGraphFromBinary({})", path);
+		
+	}
+	
+	private void loadGraph(TegFile file) {
+		
+		if (!file.getCondensedGraph().hasEndTimes() || file.getNumDeltaIndexes() != 2) {
+			logger.error("Expected edge end times and 2 delta indexes, found {} delta indexes.", file.getNumDeltaIndexes());
+			System.exit(1);
+		}
+		
+		this.numVertices = file.getNumVertices();
+		this.numSnapshots = file.getNumSnapshots();
+		this.condensedGraph = file.getCondensedGraph();
+		this.ids = file.getIds();
+		this.insertionIndex = file.getDeltaIndex(0);
+		this.deletionIndex = file.getDeltaIndex(1);
+		
+		this.checkDeltas();
+		
+	}
+	
+	public void writeBinaryGraph(String path) {
+		
+		logger.debug("+writeBinaryGraph({})", path);
+		
+		try {
+			new TegFile(this.numVertices, this.numSnapshots, this.condensedGraph, this.ids, this.insertionIndex, this.deletionIndex).write(path);
 		} catch (IOException e) {
 			e.printStackTrace();
-		} 
+		}
+		
+		logger.debug("-writeBinaryGraph({})", path);
 		
-		logger.debug("-constructGraph({})", path);
-
+	}
+	
+	private void checkDeltas() {
+		for (int i = 0; i < this.numSnapshots - 1; i++) {
+			if (this.insertionIndex.size(i) == 0) {
+				logger.error("No edge insertions at time {}.", i);
+			}
+			if (this.deletionIndex.size(i + 1) == 0) {
+				logger.error("No edge deletions at time {}.", i + 1);
+			}
+		}
 	}
 	
 	
@@ -260,7 +133,7 @@ public class TimeEvolvingGraphDecremental {
 		double[] centralities = new double[this.numSnapshots];
 		Arrays.fill(centralities, 0);
 		
-		Map<Integer, Set<Integer>> graph = this.deltaGraphIncremental.get(0);
+		Map<Integer, Set<Integer>> graph = this.insertionIndex.toAdjacency(0);
 		
 		SSSPTree tree = this.buildSSSPTree(source, graph);
 		centralities[0] = tree.getCentrality(this.numVertices);
@@ -269,33 +142,28 @@ public class TimeEvolvingGraphDecremental {
 		for (int i = 1; i < this.numSnapshots; i++) {
 			
 			if (i < this.numSnapshots - 1) {
-				Map<Integer, Set<Integer>> insertedEdges = this.deltaGraphIncremental.get(i);
-				
-				for (int s: insertedEdges.keySet()) {
-					Set<Integer> ts = insertedEdges.get(s);
-					for (int t: ts) {
-						
-						if (graph.containsKey(s)) {
-							graph.get(s).add(t);
-						} else {
-							Set<Integer> setI = new HashSet<Integer>();
-							setI.add(t);
-							graph.put(s, setI);
-						}
-					}
+				for (int edge = this.insertionIndex.begin(i); edge < this.insertionIndex.end(i); edge++) {
+					int s = this.insertionIndex.source(edge);
+					int t = this.insertionIndex.target(edge);
 					
+					if (graph.containsKey(s)) {
+						graph.get(s).add(t);
+					} else {
+						Set<Integer> setI = new HashSet<Integer>();
+						setI.add(t);
+						graph.put(s, setI);
+					}
 				}
 			}
 			
+			// Edges are deleted the snapshot after their end time
 			if (i >= 2) {
-				Map<Integer, Set<Integer>> deletedEdges = this.deltaGraphDecremental.get(i - 2);
-				
-				for (int s: deletedEdges.keySet()) {
-					Set<Integer> ts = deletedEdges.get(s);
-					for (int t: ts) {
-						if (graph.containsKey(s)) {
-							graph.get(s).remove(t);
-						}
+				for (int edge = this.deletionIndex.begin(i - 1); edge < this.deletionIndex.end(i - 1); edge++) {
+					int s = this.deletionIndex.source(edge);
+					int t = this.deletionIndex.target(edge);
+					
+					if (graph.containsKey(s)) {
+						graph.get(s).remove(t);
 					}
 				}
 			}
@@ -314,38 +182,45 @@ public class TimeEvolvingGraphDecremental {
 		double[] centralities = new double[this.numSnapshots];
 		Arrays.fill(centralities, 0);
 		
-		SSSPTree tree = this.buildSSSPTree(source, this.deltaGraphIncremental.get(0));
+		SSSPTree tree = new SSSPTree(this.numVertices, this.insertionIndex, 0, source);
 		centralities[0] = tree.getCentrality(this.numVertices);
 		
 		for (int i = 1; i < this.numSnapshots; i++) {
 			
-			if (i < this.numSnapshots - 1) {
-				Map<Integer, Set<Integer>> insertedEdges = this.deltaGraphIncremental.get(i);
-				
-				for (int s: insertedEdges.keySet()) {
-					Set<Integer> ts = insertedEdges.get(s);
-					for (int t: ts) {
-						
-						tree.insertDirectedEdge(s, t);
-					}
-					
-				}
+			// Edges are deleted the snapshot after their end time
+			tree.applyBatch(i < this.numSnapshots - 1 ? this.insertionIndex : null, i, i >= 2 ? this.deletionIndex : null, i - 1);
+			
+			centralities[i] = tree.getCentrality(this.numVertices);
+			
+		}
+		
+		return centralities;
+	}
+	
+	/**
+	 * Centralities of many sources by source and snapshot. The trees of the sources share one copy of the graph
+	 * and are repaired on parallelism threads.
+	 */
+	public double[][] getCentralityDynamicIncremental(int[] sources) {
+		double[][] centralities = new double[sources.length][this.numSnapshots];
+		
+		try (SSSPForest forest = new SSSPForest(this.numVertices, this.insertionIndex, 0, sources, this.parallelism)) {
+			
+			for (int s = 0; s < sources.length; s++) {
+				centralities[s][0] = forest.getCentrality(s, this.numVertices);
 			}
 			
-			if (i >= 2) {
-				Map<Integer, Set<Integer>> deletedEdges = this.deltaGraphDecremental.get(i - 2);
+			for (int i = 1; i < this.numSnapshots; i++) {
 				
-				for (int s: deletedEdges.keySet()) {
-					Set<Integer> ts = deletedEdges.get(s);
-					for (int t: ts) {
-						
-						tree.deleteDirectedEdge(s, t);
-					}
+				// Edges are deleted the snapshot after their end time
+				forest.applyBatch(i < this.numSnapshots - 1 ? this.insertionIndex : null, i, i >= 2 ? this.deletionIndex : null, i - 1);
+				
+				for (int s = 0; s < sources.length; s++) {
+					centralities[s][i] = forest.getCentrality(s, this.numVertices);
 				}
+				
 			}
 			
-			centralities[i] = tree.getCentrality(this.numVertices);
-			
 		}
 		
 		return centralities;
@@ -357,88 +232,76 @@ public class TimeEvolvingGraphDecremental {
 		int[] sccSize = new int[this.numSnapshots]; // Calculate scc size
 		
 		// Values default to be 0
-		int[] totalDistances = new int[this.numSnapshots];
+		long[] totalDistances = new long[this.numSnapshots];
 		
 		double[] centralities = new double[this.numSnapshots];
 		Arrays.fill(centralities, 0);
 		
-		List<List<Label>> labels = new ArrayList<List<Label>>(this.numVertices);
-		for (int i = 0; i < this.numVertices; i++) {
-			labels.add(new ArrayList<Label>());
-		}
+		LabelArena labels = new LabelArena(this.numVertices);
 
 		int level = 0;
 		
-		List<Label> current = new ArrayList<Label>();
-		List<Label> next = new ArrayList<Label>();
+		// Labels added in the current and the next level
+		LabelQueue current = new LabelQueue();
+		LabelQueue next = new LabelQueue();
 
-		Label sourceLabel = new Label(source, level, new TimeInterval(0, this.numSnapshots - 1));
-		current.add(sourceLabel);
-		labels.get(source).add(sourceLabel);
+		labels.merge(source, 0, this.numSnapshots - 1, level, current);
 
-		while (current.size() > 0) {
+		while (!current.isEmpty()) {
 			
-			for (Label label: current) {
-				int vertex = label.getVertex();
+			for (int index = 0; index < current.size(); index++) {
+				int vertex = current.vertex(index);
+				int startTime = current.start(index);
+				int endTime = current.end(index);
+				
+				// Only the edges overlapping the label: starting at or before its end and ending at or after its start
+				int end = this.condensedGraph.end(vertex, endTime);
 				
 				//Add next level
-				for (EdgeWithTimeInterval edge: this.condensedGraph.get(vertex)) {
+				for (int edge = this.condensedGraph.nextEndingAtOrAfter(this.condensedGraph.begin(vertex), end, startTime); edge < end; edge = this.condensedGraph.nextEndingAtOrAfter(edge + 1, end, startTime)) {
 					
-					int neighbor = edge.getTarget();
-					
-					TimeInterval newInterval = label.getTimeInterval().intersect(edge.getTimeInterval());
-					
-					if (newInterval != null) {
-						
-						List<Label> oldLabels = labels.get(neighbor);
-						boolean changed = Label.mergeLabel(oldLabels, new Label(neighbor, level + 1, newInterval));
-
-						if (changed) {
-							next.add(new Label(neighbor, level + 1, newInterval));
-						}
-						
-					}
+					int neighbor = this.condensedGraph.target(edge);
 					
+					// Times of the label the edge exists in, only the ones the neighbor has no label for yet are added
+					labels.merge(neighbor, Math.max(startTime, this.condensedGraph.startTime(edge)), Math.min(endTime, this.condensedGraph.endTime(edge)), level + 1, next);
 					
 				}
 				
 			}
 
-			current.clear();
-			current.addAll(next);
+			LabelQueue swap = current;
+			current = next;
+			next = swap;
 			next.clear();
 			level++;
 			
 		}
 		
+		// Labels as differences between consecutive snapshots
+		long[] distanceDifferences = new long[this.numSnapshots + 1];
+		int[] sizeDifferences = new int[this.numSnapshots + 1];
+		
 		for (int i = 0; i < this.numVertices; i++) {
-			List<Label> list = labels.get(i);
-			
-			for (Label label: list) {
-				int distance = label.getDistance();
-				int startTime = label.getStartTime();
-				int endTime = label.getEndTime();
+			for (int j = 0; j < labels.size(i); j++) {
+				int distance = labels.distance(i, j);
+				int startTime = labels.start(i, j);
+				int endTime = labels.end(i, j);
 				
-				for (int snapshot = startTime; snapshot <= endTime; snapshot++) {
-					totalDistances[snapshot] += distance;
-					sccSize[snapshot]++;
-				}
+				distanceDifferences[startTime] += distance;
+				distanceDifferences[endTime + 1] -= distance;
+				sizeDifferences[startTime]++;
+				sizeDifferences[endTime + 1]--;
 			}
-			
 		}
 		
-//		for (int i = 0; i < 10; i++) {
-//			List<Label> list = labels.get(i);
-//			String result = "";
-//			for (Label label: list) {
-//				int distance = label.getDistance();
-//				int startTime = label.getStartTime();
-//				int endTime = label.getEndTime();
-//
-//				result += "[" + startTime + "," + endTime + "]:" + distance + " ";
-//			}
-//			System.out.println(result);
-//		}
+		long distanceSum = 0;
+		int sizeSum = 0;
+		for (int snapshot = 0; snapshot < this.numSnapshots; snapshot++) {
+			distanceSum += distanceDifferences[snapshot];
+			sizeSum += sizeDifferences[snapshot];
+			totalDistances[snapshot] = distanceSum;
+			sccSize[snapshot] = sizeSum;
+		}
 		
 		
 		for (int i = 0; i < this.numSnapshots; i++) {
@@ -472,99 +335,7 @@ public class TimeEvolvingGraphDecremental {
 	
 	
 	public SSSPTree buildSSSPTree(int source, Map<Integer, Set<Integer>> initialGraph) {
-		
-		Map<Integer, Integer> nodeLevelMap = new HashMap<Integer, Integer>();
-		Map<Integer, Set<Integer>> parentsMap = new HashMap<Integer, Set<Integer>>();
-		Map<Integer, Set<Integer>> childrenMap = new HashMap<Integer, Set<Integer>>();
-		
-		int level = 0;
-		
-		Set<Integer> currentLevel = new HashSet<Integer>();
-		Set<Integer> nextLevel = new HashSet<Integer>();
-
-		currentLevel.add(source);
-		nodeLevelMap.put(source, 0);
-		
-		while (currentLevel.size() > 0) {
-			
-			// Add next level
-			for (int vertex: currentLevel) {
-						
-				if (!initialGraph.containsKey(vertex)) continue;
-				
-				for (Integer child: initialGraph.get(vertex)) {
-					
-					if (currentLevel.contains(child)) {
-						continue;
-					}
-					
-					if (!nodeLevelMap.containsKey(child)) {
-						nodeLevelMap.put(child, level + 1);
-						Set<Integer> parents = new HashSet<Integer>();
-						parents.add(vertex);
-						parentsMap.put(child, parents);
-						
-						if (childrenMap.containsKey(vertex)) {
-							Set<Integer> children = childrenMap.get(vertex);
-							children.add(child);
-						} else {
-							Set<Integer> children = new HashSet<Integer>();
-							children.add(child);
-							childrenMap.put(vertex, children);
-						}
-						
-						if (!nextLevel.contains(child)) {
-							nextLevel.add(child);
-						}
-						
-					} else {
-						int bestLevel = nodeLevelMap.get(child);
-						
-						if (!currentLevel.contains(child) && bestLevel == level + 1) {
-							if (parentsMap.containsKey(child)) {
-								Set<Integer> parents = parentsMap.get(child);
-								parents.add(vertex);
-							} else {
-								Set<Integer> parents = new HashSet<Integer>();
-								parents.add(vertex);
-								parentsMap.put(child, parents);
-							}
-							
-							if (childrenMap.containsKey(vertex)) {
-								Set<Integer> children = childrenMap.get(vertex);
-								children.add(child);
-							} else {
-								Set<Integer> children = new HashSet<Integer>();
-								children.add(child);
-								childrenMap.put(vertex, children);
-							}
-							
-							if (!nextLevel.contains(child)) {
-								nextLevel.add(child);
-							}
-							
-						}
-					}
-					
-					
-				}
-
-				
-			}
-			
-			// Begin next iteration
-			currentLevel.clear();
-			currentLevel.addAll(nextLevel);
-			nextLevel.clear();
-			
-			level++; 
-			
-		}
-		
-		SSSPTree tree = new SSSPTree(this.cloneGraph(initialGraph), source, nodeLevelMap, parentsMap, childrenMap);
-		
-		return tree;
-		
+		return new SSSPTree(this.numVertices, initialGraph, source);
 	}
 	
 	
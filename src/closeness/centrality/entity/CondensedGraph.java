@@ -0,0 +1,223 @@
+package closeness.centrality.entity;
+
+import java.util.Arrays;
+
+/**
+ * Immutable condensed graph in compressed sparse row form.
+ * The outgoing edges of vertex v are the indices offsets[v] to offsets[v + 1] - 1 of the edge arrays,
+ * sorted by start time and then by target.
+ * Insertion-only graphs have no end times, an edge then lives from its timestamp to the last snapshot.
+ */
+public final class CondensedGraph {
+
+	// Edges per block of the end time skips
+	private static final int BLOCK_SHIFT = 4;
+	private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+	private final int numVertices;
+
+	private final int[] offsets;
+	private final int[] targets;
+	private final int[] startTimes;
+	private final int[] endTimes;
+
+	// Largest end time of each block of BLOCK_SIZE consecutive edges, null without end times
+	private final int[] blockMaxEndTimes;
+
+	private CondensedGraph(int numVertices, int[] offsets, int[] targets, int[] startTimes, int[] endTimes) {
+		this.numVertices = numVertices;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.startTimes = startTimes;
+		this.endTimes = endTimes;
+		this.blockMaxEndTimes = endTimes == null ? null : blockMaxima(endTimes);
+	}
+
+	private static int[] blockMaxima(int[] values) {
+		int[] maxima = new int[(values.length + BLOCK_SIZE - 1) >>> BLOCK_SHIFT];
+		Arrays.fill(maxima, Integer.MIN_VALUE);
+		for (int i = 0; i < values.length; i++) {
+			maxima[i >>> BLOCK_SHIFT] = Math.max(maxima[i >>> BLOCK_SHIFT], values[i]);
+		}
+		return maxima;
+	}
+
+	/**
+	 * Builds the graph from the first numEdges entries of the edge arrays, which are left untouched.
+	 * Pass null end times for an insertion-only graph.
+	 */
+	public static CondensedGraph build(int numVertices, int numSnapshots, int numEdges, int[] sources, int[] targets, int[] startTimes, int[] endTimes) {
+
+		int[] order = new int[numEdges];
+		for (int i = 0; i < numEdges; i++) {
+			order[i] = i;
+		}
+
+		// Stable counting sorts from the least significant key
+		order = countingSort(order, targets, numVertices);
+		order = countingSort(order, startTimes, numSnapshots);
+		order = countingSort(order, sources, numVertices);
+
+		int[] offsets = new int[numVertices + 1];
+		for (int i = 0; i < numEdges; i++) {
+			offsets[sources[i] + 1]++;
+		}
+		for (int i = 0; i < numVertices; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+
+		int[] sortedTargets = new int[numEdges];
+		int[] sortedStartTimes = new int[numEdges];
+		int[] sortedEndTimes = endTimes == null ? null : new int[numEdges];
+		for (int i = 0; i < numEdges; i++) {
+			int edge = order[i];
+			sortedTargets[i] = targets[edge];
+			sortedStartTimes[i] = startTimes[edge];
+			if (endTimes != null) {
+				sortedEndTimes[i] = endTimes[edge];
+			}
+		}
+
+		return new CondensedGraph(numVertices, offsets, sortedTargets, sortedStartTimes, sortedEndTimes);
+
+	}
+
+	/**
+	 * Wraps arrays that are already laid out as described above, e.g. read back from a file.
+	 */
+	public static CondensedGraph wrap(int numVertices, int[] offsets, int[] targets, int[] startTimes, int[] endTimes) {
+		return new CondensedGraph(numVertices, offsets, targets, startTimes, endTimes);
+	}
+
+	private static int[] countingSort(int[] order, int[] keys, int range) {
+
+		int[] counts = new int[range + 1];
+		for (int edge: order) {
+			counts[keys[edge] + 1]++;
+		}
+		for (int i = 0; i < range; i++) {
+			counts[i + 1] += counts[i];
+		}
+
+		int[] sorted = new int[order.length];
+		for (int edge: order) {
+			sorted[counts[keys[edge]]++] = edge;
+		}
+		return sorted;
+
+	}
+
+	public int getNumVertices() {
+		return this.numVertices;
+	}
+
+	public int getNumEdges() {
+		return this.targets.length;
+	}
+
+	public boolean hasEndTimes() {
+		return this.endTimes != null;
+	}
+
+	/**
+	 * Index of the first outgoing edge of the vertex.
+	 */
+	public int begin(int vertex) {
+		return this.offsets[vertex];
+	}
+
+	/**
+	 * Index after the last outgoing edge of the vertex.
+	 */
+	public int end(int vertex) {
+		return this.offsets[vertex + 1];
+	}
+
+	public int degree(int vertex) {
+		return this.offsets[vertex + 1] - this.offsets[vertex];
+	}
+
+	/**
+	 * Index after the last outgoing edge of the vertex inserted at or before the snapshot.
+	 * The edges of a vertex are sorted by start time, so this is a binary search.
+	 */
+	public int end(int vertex, int snapshot) {
+		int low = this.offsets[vertex];
+		int high = this.offsets[vertex + 1];
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (this.startTimes[middle] <= snapshot) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * First edge from edge to end - 1 that ends at or after the time, end if there is none. Needs end times.
+	 *
+	 * Blocks of edges that all end earlier are skipped whole. Together with end(vertex, snapshot) this walks the
+	 * edges of a vertex overlapping an interval: the start time bounds the edges from above, the end time from below.
+	 */
+	public int nextEndingAtOrAfter(int edge, int end, int time) {
+		while (edge < end) {
+			int block = edge >>> BLOCK_SHIFT;
+			if (this.blockMaxEndTimes[block] < time) {
+				edge = (block + 1) << BLOCK_SHIFT;
+			} else if (this.endTimes[edge] < time) {
+				edge++;
+			} else {
+				return edge;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * The graph as of the snapshot, without copying any edge.
+	 */
+	public SnapshotView snapshot(int snapshot) {
+		return new SnapshotView(this, snapshot);
+	}
+
+	public int target(int edge) {
+		return this.targets[edge];
+	}
+
+	/**
+	 * Insertion time of the edge, same as its start time.
+	 */
+	public int timestamp(int edge) {
+		return this.startTimes[edge];
+	}
+
+	public int startTime(int edge) {
+		return this.startTimes[edge];
+	}
+
+	public int endTime(int edge) {
+		return this.endTimes[edge];
+	}
+
+	/**
+	 * The backing arrays are shared, callers must not modify them.
+	 */
+	public int[] getOffsets() {
+		return this.offsets;
+	}
+
+	public int[] getTargets() {
+		return this.targets;
+	}
+
+	public int[] getStartTimes() {
+		return this.startTimes;
+	}
+
+	public int[] getEndTimes() {
+		return this.endTimes;
+	}
+
+}
@@ -0,0 +1,148 @@
+package closeness.centrality.entity;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Edges grouped by the snapshot in which they change, e.g. get inserted or deleted.
+ * The edges of snapshot t are the indices offsets[t] to offsets[t + 1] - 1, sorted by source and then by target.
+ */
+public final class DeltaIndex {
+
+	private final int[] offsets;
+	private final int[] sources;
+	private final int[] targets;
+
+	private DeltaIndex(int[] offsets, int[] sources, int[] targets) {
+		this.offsets = offsets;
+		this.sources = sources;
+		this.targets = targets;
+	}
+
+	/**
+	 * Groups the first numEdges edges by their time, the edge arrays are left untouched.
+	 */
+	public static DeltaIndex build(int numVertices, int numSnapshots, int numEdges, int[] sources, int[] targets, int[] times) {
+
+		int[] order = new int[numEdges];
+		for (int i = 0; i < numEdges; i++) {
+			order[i] = i;
+		}
+
+		// Stable counting sorts from the least significant key
+		order = countingSort(order, targets, numVertices);
+		order = countingSort(order, sources, numVertices);
+		order = countingSort(order, times, numSnapshots);
+
+		int[] offsets = new int[numSnapshots + 1];
+		for (int i = 0; i < numEdges; i++) {
+			offsets[times[i] + 1]++;
+		}
+		for (int i = 0; i < numSnapshots; i++) {
+			offsets[i + 1] += offsets[i];
+		}
+
+		int[] sortedSources = new int[numEdges];
+		int[] sortedTargets = new int[numEdges];
+		for (int i = 0; i < numEdges; i++) {
+			sortedSources[i] = sources[order[i]];
+			sortedTargets[i] = targets[order[i]];
+		}
+
+		return new DeltaIndex(offsets, sortedSources, sortedTargets);
+
+	}
+
+	/**
+	 * Wraps arrays that are already laid out as described above, e.g. read back from a file.
+	 */
+	public static DeltaIndex wrap(int[] offsets, int[] sources, int[] targets) {
+		return new DeltaIndex(offsets, sources, targets);
+	}
+
+	private static int[] countingSort(int[] order, int[] keys, int range) {
+
+		int[] counts = new int[range + 1];
+		for (int edge: order) {
+			counts[keys[edge] + 1]++;
+		}
+		for (int i = 0; i < range; i++) {
+			counts[i + 1] += counts[i];
+		}
+
+		int[] sorted = new int[order.length];
+		for (int edge: order) {
+			sorted[counts[keys[edge]]++] = edge;
+		}
+		return sorted;
+
+	}
+
+	public int getNumSnapshots() {
+		return this.offsets.length - 1;
+	}
+
+	public int getNumEdges() {
+		return this.sources.length;
+	}
+
+	/**
+	 * Index of the first edge of the snapshot.
+	 */
+	public int begin(int snapshot) {
+		return this.offsets[snapshot];
+	}
+
+	/**
+	 * Index after the last edge of the snapshot.
+	 */
+	public int end(int snapshot) {
+		return this.offsets[snapshot + 1];
+	}
+
+	public int size(int snapshot) {
+		return this.offsets[snapshot + 1] - this.offsets[snapshot];
+	}
+
+	public int source(int edge) {
+		return this.sources[edge];
+	}
+
+	public int target(int edge) {
+		return this.targets[edge];
+	}
+
+	/**
+	 * A new adjacency map of the edges of the snapshot, which the caller is free to modify.
+	 */
+	public Map<Integer, Set<Integer>> toAdjacency(int snapshot) {
+		Map<Integer, Set<Integer>> graph = new HashMap<Integer, Set<Integer>>();
+		for (int edge = this.begin(snapshot); edge < this.end(snapshot); edge++) {
+			Set<Integer> outgoingVertices = graph.get(this.sources[edge]);
+			if (outgoingVertices == null) {
+				outgoingVertices = new HashSet<Integer>();
+				graph.put(this.sources[edge], outgoingVertices);
+			}
+			outgoingVertices.add(this.targets[edge]);
+		}
+		return graph;
+	}
+
+	/**
+	 * The backing arrays are shared, callers must not modify them.
+	 */
+	public int[] getOffsets() {
+		return this.offsets;
+	}
+
+	public int[] getSources() {
+		return this.sources;
+	}
+
+	public int[] getTargets() {
+		return this.targets;
+	}
+
+}
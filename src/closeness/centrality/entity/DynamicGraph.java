@@ -0,0 +1,288 @@
+package closeness.centrality.entity;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Outgoing and incoming adjacency of a graph that changes over the snapshots, shared by the trees of an SSSPForest.
+ *
+ * The initial edges are laid out in CSR arrays. A vertex keeps using its CSR slots while its edges fit, removals free
+ * slots for later insertions, and only a vertex that outgrows them moves its edges into an array of its own.
+ * applyBatch, insertEdge and deleteEdge record the edges they actually added and removed, for the trees to repair
+ * their levels from.
+ */
+final class DynamicGraph {
+
+	final int numVertices;
+
+	final Adjacency outgoing;
+	final Adjacency incoming;
+
+	// Edges changed by the last batch
+	final Frontier addedSources;
+	final Frontier addedTargets;
+	final Frontier removedSources;
+	final Frontier removedTargets;
+
+	/**
+	 * Graph of the edges of one snapshot of the index.
+	 */
+	DynamicGraph(int numVertices, DeltaIndex initialEdges, int snapshot) {
+		this.numVertices = numVertices;
+
+		int begin = initialEdges.begin(snapshot);
+		int end = initialEdges.end(snapshot);
+
+		int[] outDegrees = new int[numVertices];
+		int[] inDegrees = new int[numVertices];
+
+		// Edges are sorted by source and target, so duplicates are next to each other
+		for (int edge = begin; edge < end; edge++) {
+			if (!isDuplicate(initialEdges, begin, edge)) {
+				outDegrees[initialEdges.source(edge)]++;
+				inDegrees[initialEdges.target(edge)]++;
+			}
+		}
+		this.outgoing = new Adjacency(outDegrees);
+		this.incoming = new Adjacency(inDegrees);
+
+		for (int edge = begin; edge < end; edge++) {
+			if (!isDuplicate(initialEdges, begin, edge)) {
+				this.outgoing.append(initialEdges.source(edge), initialEdges.target(edge));
+				this.incoming.append(initialEdges.target(edge), initialEdges.source(edge));
+			}
+		}
+
+		this.addedSources = new Frontier();
+		this.addedTargets = new Frontier();
+		this.removedSources = new Frontier();
+		this.removedTargets = new Frontier();
+	}
+
+	DynamicGraph(int numVertices, Map<Integer, Set<Integer>> initialGraph) {
+		this.numVertices = numVertices;
+
+		int[] outDegrees = new int[numVertices];
+		int[] inDegrees = new int[numVertices];
+
+		for (Map.Entry<Integer, Set<Integer>> entry: initialGraph.entrySet()) {
+			outDegrees[entry.getKey()] = entry.getValue().size();
+			for (int target: entry.getValue()) {
+				inDegrees[target]++;
+			}
+		}
+		this.outgoing = new Adjacency(outDegrees);
+		this.incoming = new Adjacency(inDegrees);
+
+		for (Map.Entry<Integer, Set<Integer>> entry: initialGraph.entrySet()) {
+			for (int target: entry.getValue()) {
+				this.outgoing.append(entry.getKey(), target);
+				this.incoming.append(target, entry.getKey());
+			}
+		}
+
+		this.addedSources = new Frontier();
+		this.addedTargets = new Frontier();
+		this.removedSources = new Frontier();
+		this.removedTargets = new Frontier();
+	}
+
+	private static boolean isDuplicate(DeltaIndex edges, int begin, int edge) {
+		return edge > begin && edges.source(edge) == edges.source(edge - 1) && edges.target(edge) == edges.target(edge - 1);
+	}
+
+	boolean addEdge(int from, int to) {
+		// Search the shorter of the two lists
+		if (this.outgoing.degree(from) <= this.incoming.degree(to)) {
+			if (this.outgoing.indexOf(from, to) != -1) {
+				return false;
+			}
+		} else if (this.incoming.indexOf(to, from) != -1) {
+			return false;
+		}
+
+		this.outgoing.add(from, to);
+		this.incoming.add(to, from);
+		return true;
+	}
+
+	boolean removeEdge(int from, int to) {
+		if (!this.outgoing.remove(from, to)) {
+			return false;
+		}
+		this.incoming.remove(to, from);
+		return true;
+	}
+
+	/**
+	 * Adds the insertions and then removes the deletions of one snapshot, null for no edges of that kind.
+	 * An edge inserted and deleted in the same batch ends up deleted.
+	 */
+	void applyBatch(DeltaIndex inserts, int insertSnapshot, DeltaIndex deletes, int deleteSnapshot) {
+
+		this.clearChanges();
+
+		if (inserts != null) {
+			// Both lists are sorted by source and target, the deletions are walked along with the insertions
+			int deleted = deletes == null ? 0 : deletes.begin(deleteSnapshot);
+			int deletedEnd = deletes == null ? 0 : deletes.end(deleteSnapshot);
+
+			for (int edge = inserts.begin(insertSnapshot); edge < inserts.end(insertSnapshot); edge++) {
+				int from = inserts.source(edge);
+				int to = inserts.target(edge);
+
+				while (deleted < deletedEnd && compare(deletes, deleted, from, to) < 0) {
+					deleted++;
+				}
+				if (deleted < deletedEnd && compare(deletes, deleted, from, to) == 0) {
+					continue;
+				}
+
+				if (this.addEdge(from, to)) {
+					this.addedSources.add(from);
+					this.addedTargets.add(to);
+				}
+			}
+		}
+
+		if (deletes != null) {
+			for (int edge = deletes.begin(deleteSnapshot); edge < deletes.end(deleteSnapshot); edge++) {
+				int from = deletes.source(edge);
+				int to = deletes.target(edge);
+
+				if (this.removeEdge(from, to)) {
+					this.removedSources.add(from);
+					this.removedTargets.add(to);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Adds one edge as a batch of its own, false if the graph already has it.
+	 */
+	boolean insertEdge(int from, int to) {
+		this.clearChanges();
+		if (!this.addEdge(from, to)) {
+			return false;
+		}
+		this.addedSources.add(from);
+		this.addedTargets.add(to);
+		return true;
+	}
+
+	/**
+	 * Removes one edge as a batch of its own, false if the graph does not have it.
+	 */
+	boolean deleteEdge(int from, int to) {
+		this.clearChanges();
+		if (!this.removeEdge(from, to)) {
+			return false;
+		}
+		this.removedSources.add(from);
+		this.removedTargets.add(to);
+		return true;
+	}
+
+	private void clearChanges() {
+		this.addedSources.clear();
+		this.addedTargets.clear();
+		this.removedSources.clear();
+		this.removedTargets.clear();
+	}
+
+	private static int compare(DeltaIndex edges, int edge, int from, int to) {
+		if (edges.source(edge) != from) {
+			return Integer.compare(edges.source(edge), from);
+		}
+		return Integer.compare(edges.target(edge), to);
+	}
+
+
+	/**
+	 * Edges of one direction. The edges of vertex v are array(v)[begin(v)] to array(v)[end(v) - 1], in no particular order.
+	 */
+	static final class Adjacency {
+
+		private final int[] offsets;
+		private final int[] edges;
+		private final int[] degrees;
+
+		// Edges of the vertices that outgrew their CSR slots, null for the others
+		private final int[][] overflow;
+
+		private Adjacency(int[] degrees) {
+			int numVertices = degrees.length;
+
+			this.offsets = new int[numVertices + 1];
+			for (int v = 0; v < numVertices; v++) {
+				this.offsets[v + 1] = this.offsets[v] + degrees[v];
+			}
+			this.edges = new int[this.offsets[numVertices]];
+
+			// Refilled by append
+			this.degrees = new int[numVertices];
+			this.overflow = new int[numVertices][];
+		}
+
+		int[] array(int vertex) {
+			return this.overflow[vertex] != null ? this.overflow[vertex] : this.edges;
+		}
+
+		int begin(int vertex) {
+			return this.overflow[vertex] != null ? 0 : this.offsets[vertex];
+		}
+
+		int end(int vertex) {
+			return this.begin(vertex) + this.degrees[vertex];
+		}
+
+		int degree(int vertex) {
+			return this.degrees[vertex];
+		}
+
+		private int capacity(int vertex) {
+			return this.overflow[vertex] != null ? this.overflow[vertex].length : this.offsets[vertex + 1] - this.offsets[vertex];
+		}
+
+		private void append(int vertex, int neighbor) {
+			this.edges[this.offsets[vertex] + this.degrees[vertex]++] = neighbor;
+		}
+
+		private int indexOf(int vertex, int neighbor) {
+			int[] array = this.array(vertex);
+			for (int i = this.begin(vertex); i < this.end(vertex); i++) {
+				if (array[i] == neighbor) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private void add(int vertex, int neighbor) {
+			int degree = this.degrees[vertex];
+			if (degree == this.capacity(vertex)) {
+				int[] larger = new int[Math.max(4, degree * 2)];
+				System.arraycopy(this.array(vertex), this.begin(vertex), larger, 0, degree);
+				this.overflow[vertex] = larger;
+			}
+			this.array(vertex)[this.begin(vertex) + degree] = neighbor;
+			this.degrees[vertex]++;
+		}
+
+		private boolean remove(int vertex, int neighbor) {
+			int i = this.indexOf(vertex, neighbor);
+			if (i == -1) {
+				return false;
+			}
+			// Order does not matter, the last edge takes the freed slot
+			int[] array = this.array(vertex);
+			array[i] = array[this.end(vertex) - 1];
+			this.degrees[vertex]--;
+			return true;
+		}
+
+	}
+
+}
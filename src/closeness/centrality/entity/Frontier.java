@@ -0,0 +1,46 @@
+package closeness.centrality.entity;
+
+/**
+ * Compact list of the vertices in one BFS level.
+ * Duplicates are not checked here, the caller marks enqueued vertices in its own level array.
+ */
+public class Frontier {
+
+	private int[] vertices;
+	private int size;
+
+	public Frontier() {
+		this(16);
+	}
+
+	public Frontier(int capacity) {
+		this.vertices = new int[Math.max(capacity, 1)];
+		this.size = 0;
+	}
+
+	public void add(int vertex) {
+		if (this.size == this.vertices.length) {
+			int[] larger = new int[this.vertices.length * 2];
+			System.arraycopy(this.vertices, 0, larger, 0, this.size);
+			this.vertices = larger;
+		}
+		this.vertices[this.size++] = vertex;
+	}
+
+	public int get(int index) {
+		return this.vertices[index];
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public void clear() {
+		this.size = 0;
+	}
+
+}
@@ -0,0 +1,70 @@
+package closeness.centrality.entity;
+
+import java.util.Arrays;
+
+/**
+ * Raw vertex ids and timestamps of the input, by dense vertex and snapshot index.
+ * Both are sorted, so the dense index of a raw value is its rank. A null array stands for the identity.
+ */
+public final class IdMapping {
+
+	public static final IdMapping IDENTITY = new IdMapping(null, null);
+
+	private final long[] vertexIds;
+	private final long[] timestamps;
+
+	public IdMapping(long[] vertexIds, long[] timestamps) {
+		this.vertexIds = vertexIds;
+		this.timestamps = timestamps;
+	}
+
+	public boolean hasVertexIds() {
+		return this.vertexIds != null;
+	}
+
+	public boolean hasTimestamps() {
+		return this.timestamps != null;
+	}
+
+	public long getVertexId(int vertex) {
+		return this.vertexIds == null ? vertex : this.vertexIds[vertex];
+	}
+
+	/**
+	 * Dense index of the raw vertex id, -1 if the id is not in the graph.
+	 */
+	public int getVertex(long vertexId) {
+		return indexOf(this.vertexIds, vertexId);
+	}
+
+	public long getTimestamp(int snapshot) {
+		return this.timestamps == null ? snapshot : this.timestamps[snapshot];
+	}
+
+	/**
+	 * Snapshot of the raw timestamp, -1 if no edge has this timestamp.
+	 */
+	public int getSnapshot(long timestamp) {
+		return indexOf(this.timestamps, timestamp);
+	}
+
+	/**
+	 * The backing arrays are shared, callers must not modify them.
+	 */
+	public long[] getVertexIds() {
+		return this.vertexIds;
+	}
+
+	public long[] getTimestamps() {
+		return this.timestamps;
+	}
+
+	private static int indexOf(long[] values, long value) {
+		if (values == null) {
+			return value >= 0 && value <= Integer.MAX_VALUE ? (int) value : -1;
+		}
+		int index = Arrays.binarySearch(values, value);
+		return index >= 0 ? index : -1;
+	}
+
+}
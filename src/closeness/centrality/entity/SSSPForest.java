@@ -0,0 +1,110 @@
+package closeness.centrality.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * BFS trees of many sources over one shared DynamicGraph. The graph is stored once whatever the number of sources,
+ * each tree only adds its per vertex levels and parent counts.
+ *
+ * applyBatch updates the graph once and then repairs the trees on parallelism threads, the trees only read the graph
+ * and write their own state. The forest must be closed to release its threads.
+ */
+public class SSSPForest implements AutoCloseable {
+
+	private final DynamicGraph graph;
+	private final SSSPTree[] trees;
+
+	private final int parallelism;
+	private final ForkJoinPool pool;
+
+	/**
+	 * Trees of the sources over the edges of one snapshot of the index.
+	 */
+	public SSSPForest(int numVertices, DeltaIndex initialEdges, int snapshot, int[] sources, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism + ".");
+		}
+
+		this.graph = new DynamicGraph(numVertices, initialEdges, snapshot);
+		this.trees = new SSSPTree[sources.length];
+
+		this.parallelism = Math.min(parallelism, Math.max(sources.length, 1));
+		this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+
+		this.forEachTree((from, to) -> {
+			for (int i = from; i < to; i++) {
+				this.trees[i] = new SSSPTree(this.graph, sources[i]);
+			}
+		});
+	}
+
+	/**
+	 * Applies the insertions and deletions of one snapshot to all the trees, null for no edges of that kind.
+	 * See SSSPTree.applyBatch.
+	 */
+	public void applyBatch(DeltaIndex inserts, int insertSnapshot, DeltaIndex deletes, int deleteSnapshot) {
+		this.graph.applyBatch(inserts, insertSnapshot, deletes, deleteSnapshot);
+
+		this.forEachTree((from, to) -> {
+			for (int i = from; i < to; i++) {
+				this.trees[i].repair();
+			}
+		});
+	}
+
+	public int size() {
+		return this.trees.length;
+	}
+
+	public int getSource(int index) {
+		return this.trees[index].getSource();
+	}
+
+	public double getCentrality(int index, int totalNumOfVertices) {
+		return this.trees[index].getCentrality(totalNumOfVertices);
+	}
+
+	/**
+	 * Distance from the source of the tree, Integer.MAX_VALUE if the vertex is not reachable.
+	 */
+	public int getLevel(int index, int vertex) {
+		return this.trees[index].getLevel(vertex);
+	}
+
+	@Override
+	public void close() {
+		if (this.pool != null) {
+			this.pool.shutdown();
+		}
+	}
+
+	private interface TreeRange {
+		void run(int from, int to);
+	}
+
+	/**
+	 * Splits the trees in one contiguous range per thread and waits until all ranges are done.
+	 */
+	private void forEachTree(TreeRange range) {
+
+		if (this.pool == null) {
+			range.run(0, this.trees.length);
+			return;
+		}
+
+		List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(this.parallelism);
+		for (int i = 0; i < this.parallelism; i++) {
+			int from = (int) ((long) this.trees.length * i / this.parallelism);
+			int to = (int) ((long) this.trees.length * (i + 1) / this.parallelism);
+			tasks.add(this.pool.submit(() -> range.run(from, to)));
+		}
+		for (ForkJoinTask<?> task: tasks) {
+			task.join();
+		}
+
+	}
+
+}
@@ -1,408 +1,448 @@
 package closeness.centrality.entity;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.Set;
 
+/**
+ * BFS tree of one source over a graph that changes one edge at a time.
+ *
+ * Everything is kept in int arrays indexed by vertex: the out and in adjacency lists of the DynamicGraph, the level
+ * of each vertex and the number of its parents, i.e. in-neighbours one level closer to the source. The parents
+ * themselves are not stored, they are the in-neighbours with level - 1, and the children the out-neighbours with level + 1.
+ */
 public class SSSPTree {
-	
-	public int totalReachableVertices;
-	
-	public Map<Integer, Integer> nodeLevelMap;
-	
-	public int source;
-	
-	public Map<Integer, Set<Integer>> parentsMap;
-	
-	public Map<Integer, Set<Integer>> childrenMap;
-	
-	public Map<Integer, Set<Integer>> graph;
-
-	public Map<Integer, Set<Integer>> reverseGraph;
-	
-	
+
+	private static final int UNREACHED = Integer.MAX_VALUE;
+
+	// Kept up to date by every update, so reading the centrality is constant time
+	private int totalReachableVertices;
+
+	private long totalDistance;
+
+	private final int source;
+
+	// Possibly shared with the other trees of a forest
+	private final DynamicGraph graph;
+	private final DynamicGraph.Adjacency outgoing;
+	private final DynamicGraph.Adjacency incoming;
+
+	private final int[] levels;
+	private final int[] parentCounts;
+
+	// Vertices whose level changes in the current update
+	private final long[] affected;
+	private final Frontier affectedVertices;
+
+	private Frontier current;
+	private Frontier next;
+
+	// Vertices to settle by tentative distance, used to repair the levels after deletions and batches
+	private final List<Frontier> buckets;
+	private int lowestBucket;
+	private int highestBucket;
+
+
+	/**
+	 * Tree over the edges of one snapshot of the index.
+	 */
+	public SSSPTree(int numVertices, DeltaIndex initialEdges, int snapshot, int source) {
+		this(new DynamicGraph(numVertices, initialEdges, snapshot), source);
+	}
+
+	public SSSPTree(int numVertices, Map<Integer, Set<Integer>> initialGraph, int source) {
+		this(new DynamicGraph(numVertices, initialGraph), source);
+	}
+
+	/**
+	 * Former constructor over precomputed BFS maps. The maps are not kept any more: the levels are rebuilt from the
+	 * graph, which is copied, and the vertices are the ones of the graph and of the level map.
+	 */
+	@Deprecated
 	public SSSPTree(Map<Integer, Set<Integer>> graph, int source, Map<Integer, Integer> nodeLevelMap, Map<Integer, Set<Integer>> parentsMap, Map<Integer, Set<Integer>> childrenMap) {
+		this(numVertices(graph, nodeLevelMap, source), graph, source);
+	}
+
+	private static int numVertices(Map<Integer, Set<Integer>> graph, Map<Integer, Integer> nodeLevelMap, int source) {
+		int max = source;
+		for (Map.Entry<Integer, Set<Integer>> entry: graph.entrySet()) {
+			max = Math.max(max, entry.getKey());
+			for (int target: entry.getValue()) {
+				max = Math.max(max, target);
+			}
+		}
+		for (int vertex: nodeLevelMap.keySet()) {
+			max = Math.max(max, vertex);
+		}
+		return max + 1;
+	}
+
+	SSSPTree(DynamicGraph graph, int source) {
 		this.graph = graph;
-		
-		this.buildReverseGraph();
-		this.totalReachableVertices = nodeLevelMap.size();
+		this.outgoing = graph.outgoing;
+		this.incoming = graph.incoming;
 		this.source = source;
-		
-		this.nodeLevelMap = nodeLevelMap;
-		this.parentsMap = parentsMap;
-		this.childrenMap = childrenMap;
+
+		this.levels = new int[graph.numVertices];
+		this.parentCounts = new int[graph.numVertices];
+
+		this.affected = new long[(graph.numVertices + Long.SIZE - 1) / Long.SIZE];
+		this.affectedVertices = new Frontier();
+
+		this.current = new Frontier();
+		this.next = new Frontier();
+
+		this.buckets = new ArrayList<Frontier>();
+		this.lowestBucket = Integer.MAX_VALUE;
+		this.highestBucket = -1;
+
+		this.build();
 	}
 
-	public void buildReverseGraph() {
-		
-		this.reverseGraph = new HashMap<Integer, Set<Integer>>();
-		
-		for (int source: this.graph.keySet()) {
-			Set<Integer> targets = this.graph.get(source);
-			
-			for (int target: targets) {
-				if (this.reverseGraph.containsKey(target)) {
-					this.reverseGraph.get(target).add(source);
-				} else {
-					Set<Integer> sources = new HashSet<Integer>();
-					sources.add(source);
-					this.reverseGraph.put(target, sources);
+	private void build() {
+
+		Arrays.fill(this.levels, UNREACHED);
+
+		this.setLevel(this.source, 0);
+		this.current.add(this.source);
+		int level = 0;
+
+		while (!this.current.isEmpty()) {
+
+			for (int i = 0; i < this.current.size(); i++) {
+				int vertex = this.current.get(i);
+				int[] children = this.outgoing.array(vertex);
+
+				for (int j = this.outgoing.begin(vertex), end = this.outgoing.end(vertex); j < end; j++) {
+					int child = children[j];
+
+					if (this.levels[child] == UNREACHED) {
+						this.setLevel(child, level + 1);
+						this.next.add(child);
+					}
+					if (this.levels[child] == level + 1) {
+						this.parentCounts[child]++;
+					}
 				}
 			}
-			
+
+			this.swapLevels();
+			level++;
+
 		}
-		
+
 	}
-	
+
+
+	/**
+	 * Removes the edge and repairs the levels, a batch of one deletion.
+	 */
 	public void deleteDirectedEdge(int from, int to) {
-		// Update graph first
-		this.graph.get(from).remove(to);
-		this.reverseGraph.get(to).remove(from);
-		
-		if (!this.nodeLevelMap.containsKey(from)) {
-			return;
-		}
-		
-		if (!this.nodeLevelMap.containsKey(to)) {
-			return;
+		if (this.graph.deleteEdge(from, to)) {
+			this.repair();
 		}
-		
-		if (this.nodeLevelMap.get(from) - this.nodeLevelMap.get(to) != -1) {
-			return;
-		}
-		
-		if (this.parentsMap.get(to).size() > 1 && this.parentsMap.get(to).contains(from)) {
-			this.parentsMap.get(to).remove(from);
-			this.childrenMap.get(from).remove(to);
-			
-			return;
-		}
-		
-		Set<Integer> affectedVertices = new HashSet<Integer>();
-		Set<Integer> currentLevel = new HashSet<Integer>();
-		Set<Integer> nextLevel = new HashSet<Integer>();
-		if (this.parentsMap.get(to).size() == 1 && this.parentsMap.get(to).contains(from)) {
-			// the only shortest path link
-			this.childrenMap.get(from).remove(to);
-			this.parentsMap.get(to).remove(from);
-			currentLevel.add(to);
-			
-//			if (this.childrenMap.containsKey(to)) {
-//				for (int v: this.childrenMap.get(to)) {
-//					this.parentsMap.get(v).remove(to);
-//				}
-//				this.childrenMap.remove(to);
-//			}
+	}
 
+	/**
+	 * Adds the edge and repairs the levels, a batch of one insertion.
+	 */
+	public void insertDirectedEdge(int from, int to) {
+		if (this.graph.insertEdge(from, to)) {
+			this.repair();
 		}
-		
-		while (currentLevel.size() > 0) {
-			affectedVertices.addAll(currentLevel);
-			
-			for (int v: currentLevel) {
-				
-				this.nodeLevelMap.remove(v);
-				
-				if (!this.childrenMap.containsKey(v)) {
-					continue;
-				}
-				
-				Set<Integer> childs = this.childrenMap.get(v);
-				for (Integer child: childs) {
-					if (this.parentsMap.get(child).size() == 1) {
-						nextLevel.add(child);
-					}
-					
-					this.parentsMap.get(child).remove(v);
-					
-				}
-				
-				this.childrenMap.remove(v);
-				
+	}
+
+
+	/**
+	 * Applies the insertions and deletions of one snapshot at once, null for no edges of that kind.
+	 * Like calling insertDirectedEdge on every inserted edge and then deleteDirectedEdge on every deleted one,
+	 * but the levels are repaired in a single pass, so a vertex reached by many changes is settled only once.
+	 */
+	public void applyBatch(DeltaIndex inserts, int insertSnapshot, DeltaIndex deletes, int deleteSnapshot) {
+		this.graph.applyBatch(inserts, insertSnapshot, deletes, deleteSnapshot);
+		this.repair();
+	}
+
+	/**
+	 * Repairs the levels after the edges of the last batch of the graph.
+	 */
+	void repair() {
+
+		// New parents at the same level keep vertices from losing their levels below
+		for (int i = 0; i < this.graph.addedSources.size(); i++) {
+			int from = this.graph.addedSources.get(i);
+			int to = this.graph.addedTargets.get(i);
+
+			if (this.levels[from] != UNREACHED && this.levels[from] + 1 == this.levels[to]) {
+				this.parentCounts[to]++;
 			}
-			
-			currentLevel.clear();
-			currentLevel.addAll(nextLevel);
-			nextLevel.clear();
 		}
-		
-		if (affectedVertices.size() > 0) {
-
-			PriorityQueue<PQItem> pq = new PriorityQueue<PQItem>();
-			
-			for (int v: affectedVertices) {
-				
-				int distance = Integer.MAX_VALUE;
-				List<Integer> parents = new ArrayList<Integer>();
-				
-				Set<Integer> sources = this.reverseGraph.get(v);
-				if (sources != null) {
-					for (int source: sources) {
-						if (!this.nodeLevelMap.containsKey(source)) {
-							continue;
-						}
-						
-						if (this.nodeLevelMap.get(source) + 1 < distance) {
-							distance = this.nodeLevelMap.get(source) + 1;
-							parents.clear();
-							parents.add(source);
-						} else if (this.nodeLevelMap.get(source) + 1 == distance) {
-							parents.add(source);
-						}
-						
-					}
-					
-					PQItem item = new PQItem(v, distance, parents);
-					pq.add(item);
-					
+
+		// Deleted tree edges take a parent away, vertices left without any lose their levels
+		for (int i = 0; i < this.graph.removedSources.size(); i++) {
+			int from = this.graph.removedSources.get(i);
+			int to = this.graph.removedTargets.get(i);
+
+			if (this.levels[from] != UNREACHED && this.levels[from] + 1 == this.levels[to]) {
+				this.parentCounts[to]--;
+				if (this.parentCounts[to] == 0) {
+					this.markAffected(to);
+					this.current.add(to);
 				}
-				
-				
-					
 			}
-			
-			while (pq.size() > 0) {
-				PQItem first = pq.poll();
-				int v = first.getVertexId();
-				int distance = first.getDistance();
-				List<Integer> parents = first.parents;
-				
-				if (distance == Integer.MAX_VALUE) {
-					break;
-				}
-				
-				
-				if (!this.nodeLevelMap.containsKey(v)) {
-					
-					this.nodeLevelMap.put(v, distance);
-					
-					for (int parent: parents) {
-						this.updateParentChildrenMap(parent, v);
-					}
-					
-					
-				} else if (distance == this.nodeLevelMap.get(v)) {
-					
-					for (int parent: parents) {
-						this.updateParentChildrenMap(parent, v);
-					}
-					
-				} else if (distance < this.nodeLevelMap.get(v)){
-
-					this.nodeLevelMap.put(v, distance);
-					
-					// Break existing parents and move to new parent
-					if (this.parentsMap.containsKey(v)) {
-						for (int p: this.parentsMap.get(v)) {
-							this.childrenMap.get(p).remove(v);
-						}
-					}
-					this.parentsMap.get(v).clear();
-					
-					for (int parent: parents) {
-						this.updateParentChildrenMap(parent, v);
-					}
-					
-					
-				} else {
-					continue;
-				}
-				
-				affectedVertices.remove(v);
-				
-				if (!this.graph.containsKey(v)) {
-					continue;
-				}
-				
-				Set<Integer> childs = this.graph.get(v);
-				for (int child: childs) {
-					if (affectedVertices.contains(child)) {
-						
-						if (!this.nodeLevelMap.containsKey(child) || this.nodeLevelMap.get(child) > distance + 1) {
-						
-							List<Integer> ps = new ArrayList<Integer>();
-							ps.add(v);
-							PQItem item = new PQItem(child, distance + 1, ps);
-							pq.add(item);
+		}
+
+		// The cascade only compares each vertex with its own children, so the roots can be at any level
+		while (!this.current.isEmpty()) {
+
+			for (int i = 0; i < this.current.size(); i++) {
+				int v = this.current.get(i);
+				int level = this.levels[v];
+				int[] children = this.outgoing.array(v);
+
+				for (int j = this.outgoing.begin(v), end = this.outgoing.end(v); j < end; j++) {
+					int child = children[j];
+					if (this.levels[child] == level + 1 && !this.isAffected(child)) {
+						this.parentCounts[child]--;
+						if (this.parentCounts[child] == 0) {
+							this.markAffected(child);
+							this.next.add(child);
 						}
 					}
 				}
-				
 			}
-			
-		}
-		
-		
-	}
-	
-	
-	
-	public void insertDirectedEdge(int from, int to) {
-		// Update graph first
-		if (!this.graph.containsKey(from)) {
-			Set<Integer> vs = new HashSet<Integer>();
-			this.graph.put(from, vs);
-		}
-		this.graph.get(from).add(to);
 
-		if (!this.reverseGraph.containsKey(to)) {
-			Set<Integer> vs = new HashSet<Integer>();
-			this.reverseGraph.put(to, vs);
+			this.swapLevels();
+
 		}
-		this.reverseGraph.get(to).add(from);
-		
-		
-		if (!this.nodeLevelMap.containsKey(from)) {
-			return;
+
+		int numAffected = this.affectedVertices.size();
+		for (int i = 0; i < numAffected; i++) {
+			this.setLevel(this.affectedVertices.get(i), UNREACHED);
 		}
-		int levelFrom = this.nodeLevelMap.get(from);
-		
-		if (this.nodeLevelMap.containsKey(to)) {
-			int levelTo = this.nodeLevelMap.get(to);
-			if (levelTo < levelFrom + 1) {
-				return;
-			}
-			
-			if (levelTo == levelFrom + 1) {
-				this.updateParentChildrenMap(from, to);
-				return;
-			}
-			
-			this.nodeLevelMap.put(to, levelFrom + 1);
-			
-			// Break existing parents and move to new parent
-			for (int p: this.parentsMap.get(to)) {
-				this.childrenMap.get(p).remove(to);
+
+		// Seed the vertices that lost their levels and the targets of the new edges that are now closer
+		for (int i = 0; i < numAffected; i++) {
+			int v = this.affectedVertices.get(i);
+			int distance = UNREACHED;
+
+			int[] sources = this.incoming.array(v);
+			for (int j = this.incoming.begin(v), end = this.incoming.end(v); j < end; j++) {
+				int level = this.levels[sources[j]];
+				if (level != UNREACHED && level + 1 < distance) {
+					distance = level + 1;
+				}
 			}
-			this.parentsMap.get(to).clear();
-			
-			this.updateParentChildrenMap(from, to);
-			
-		} else {
-			this.nodeLevelMap.put(to, levelFrom + 1);
-			
-			this.updateParentChildrenMap(from, to);
 
+			this.offer(distance, v);
 		}
-		
-		int level = levelFrom + 1;
-		List<Integer> currentLevel = new ArrayList<Integer>();
-		currentLevel.add(to);
-		List<Integer> nextLevel = new ArrayList<Integer>();
-		
-		while (currentLevel.size() > 0) {
-			level++;
-			
-			for (int vertex: currentLevel) {
-				if (!this.graph.containsKey(vertex)) {
+
+		for (int i = 0; i < this.graph.addedSources.size(); i++) {
+			int from = this.graph.addedSources.get(i);
+			if (this.levels[from] != UNREACHED) {
+				this.offer(this.levels[from] + 1, this.graph.addedTargets.get(i));
+			}
+		}
+
+		for (int distance = this.lowestBucket; distance <= this.highestBucket; distance++) {
+			Frontier bucket = this.buckets.get(distance);
+
+			for (int k = 0; k < bucket.size(); k++) {
+				int v = bucket.get(k);
+
+				if (this.levels[v] != distance) {
+					// Offered a shorter distance later
 					continue;
 				}
-				
-				Set<Integer> children = this.graph.get(vertex);
-				
-				for (int child: children) {
-					if (!this.nodeLevelMap.containsKey(child)) {
-						// New connected vertex
-						this.nodeLevelMap.put(child, level);
-
-						this.updateParentChildrenMap(vertex, child);
-						nextLevel.add(child);
-						continue;
+
+				if (!this.isAffected(v)) {
+					this.markAffected(v);
+				}
+
+				// All the vertices one level up are settled by now
+				int parents = 0;
+				int[] sources = this.incoming.array(v);
+				for (int j = this.incoming.begin(v), end = this.incoming.end(v); j < end; j++) {
+					if (this.levels[sources[j]] == distance - 1) {
+						parents++;
 					}
-					
-					if (this.nodeLevelMap.get(child) > level) {
-						// Shorter distance
-						this.nodeLevelMap.put(child, level);
-						
-						for (int p: this.parentsMap.get(child)) {
-							this.childrenMap.get(p).remove(child);
-						}
-						this.parentsMap.get(child).clear();
-						
-						
-						this.updateParentChildrenMap(vertex, child);
-						nextLevel.add(child);
-						
-					} else if (this.nodeLevelMap.get(child) == level) {
-						this.updateParentChildrenMap(vertex, child);
+				}
+				this.parentCounts[v] = parents;
+
+				int[] children = this.outgoing.array(v);
+				for (int j = this.outgoing.begin(v), end = this.outgoing.end(v); j < end; j++) {
+					int child = children[j];
+					if (distance + 1 < this.levels[child]) {
+						this.offer(distance + 1, child);
+					} else if (this.levels[child] == distance + 1) {
+						// Recounted anyway if the child is settled later
+						this.parentCounts[child]++;
 					}
-					
 				}
-				
-				
 			}
-			
-			currentLevel.clear();
-			currentLevel.addAll(nextLevel);
-			nextLevel.clear();
-			
+
+			bucket.clear();
+		}
+		this.lowestBucket = Integer.MAX_VALUE;
+		this.highestBucket = -1;
+
+		for (int i = 0; i < this.affectedVertices.size(); i++) {
+			int v = this.affectedVertices.get(i);
+			if (this.levels[v] == UNREACHED) {
+				this.parentCounts[v] = 0;
+			}
+			this.unmarkAffected(v);
 		}
-		
-		
-		
+		this.affectedVertices.clear();
+
 	}
-	
-	
-	private void updateParentChildrenMap(int parent, int child) {
-		if (this.parentsMap.containsKey(child)) {
-			this.parentsMap.get(child).add(parent);
-		} else {
-			Set<Integer> parents = new HashSet<Integer>();
-			parents.add(parent);
-			this.parentsMap.put(child, parents);
-		}
-		
-		if (this.childrenMap.containsKey(parent)) {
-			this.childrenMap.get(parent).add(child);
-		} else {
-			Set<Integer> children = new HashSet<Integer>();
-			children.add(child);
-			this.childrenMap.put(parent, children);
+
+	/**
+	 * Levels only ever shrink during a batch, so a vertex takes the offered distance right away and is
+	 * settled when its bucket comes up with the distance still unchanged.
+	 */
+	private void offer(int distance, int vertex) {
+		if (distance < this.levels[vertex]) {
+			this.setLevel(vertex, distance);
+			this.push(distance, vertex);
 		}
-		
 	}
-	
-	
+
+
 	public double getCentrality(int totalNumOfVertices) {
-		
-		this.totalReachableVertices = this.nodeLevelMap.size();
-		int totalDistance = 0;
-		for (int v: this.nodeLevelMap.keySet()) {
-			totalDistance += this.nodeLevelMap.get(v);
-		}
-		
-		if (totalDistance == 0) {
+
+		if (this.totalDistance == 0) {
 			return 0.0;
 		} else {
-			return 1.0 * (double)(totalReachableVertices - 1) * (double)(totalReachableVertices - 1) / (double)totalDistance / (double)(totalNumOfVertices - 1);
+			return 1.0 * (double)(this.totalReachableVertices - 1) * (double)(this.totalReachableVertices - 1) / (double)this.totalDistance / (double)(totalNumOfVertices - 1);
 		}
 	}
 
+	public long getTotalDistance() {
+		return this.totalDistance;
+	}
+
+	/**
+	 * Number of vertices reachable from the source, the source included.
+	 */
+	public int getTotalReachableVertices() {
+		return this.totalReachableVertices;
+	}
+
+	public int getSource() {
+		return this.source;
+	}
+
+	/**
+	 * Distance from the source, Integer.MAX_VALUE if the vertex is not reachable.
+	 */
+	public int getLevel(int vertex) {
+		return this.levels[vertex];
+	}
+
+	public int getParentCount(int vertex) {
+		return this.parentCounts[vertex];
+	}
+
+	/**
+	 * Level of every reachable vertex, built on each call, changing it does not change the tree.
+	 */
+	@Deprecated
 	public Map<Integer, Integer> getNodeLevelMap() {
+		Map<Integer, Integer> nodeLevelMap = new HashMap<Integer, Integer>();
+		for (int v = 0; v < this.levels.length; v++) {
+			if (this.levels[v] != UNREACHED) {
+				nodeLevelMap.put(v, this.levels[v]);
+			}
+		}
 		return nodeLevelMap;
 	}
 
-	public void setNodeLevelMap(Map<Integer, Integer> nodeLevelMap) {
-		this.nodeLevelMap = nodeLevelMap;
+	/**
+	 * In-neighbours one level up of every reachable vertex, built on each call like getNodeLevelMap.
+	 */
+	@Deprecated
+	public Map<Integer, Set<Integer>> getParentsMap() {
+		return this.treeNeighbours(this.incoming, -1);
 	}
 
-	public Map<Integer, Set<Integer>> getParentsMap() {
-		return parentsMap;
+	/**
+	 * Out-neighbours one level down of every reachable vertex, built on each call like getNodeLevelMap.
+	 */
+	@Deprecated
+	public Map<Integer, Set<Integer>> getChildrenMap() {
+		return this.treeNeighbours(this.outgoing, 1);
 	}
 
-	public void setParentsMap(Map<Integer, Set<Integer>> parentsMap) {
-		this.parentsMap = parentsMap;
+	private Map<Integer, Set<Integer>> treeNeighbours(DynamicGraph.Adjacency adjacency, int levelOffset) {
+		Map<Integer, Set<Integer>> neighbours = new HashMap<Integer, Set<Integer>>();
+		for (int v = 0; v < this.levels.length; v++) {
+			if (this.levels[v] == UNREACHED) {
+				continue;
+			}
+			Set<Integer> set = new HashSet<Integer>();
+			int[] array = adjacency.array(v);
+			for (int j = adjacency.begin(v), end = adjacency.end(v); j < end; j++) {
+				if (this.levels[array[j]] == this.levels[v] + levelOffset) {
+					set.add(array[j]);
+				}
+			}
+			neighbours.put(v, set);
+		}
+		return neighbours;
 	}
 
-	public Map<Integer, Set<Integer>> getChildrenMap() {
-		return childrenMap;
+
+	/**
+	 * Changes the level of the vertex and the running sums with it.
+	 */
+	private void setLevel(int vertex, int level) {
+		int previous = this.levels[vertex];
+		if (previous != UNREACHED) {
+			this.totalReachableVertices--;
+			this.totalDistance -= previous;
+		}
+		if (level != UNREACHED) {
+			this.totalReachableVertices++;
+			this.totalDistance += level;
+		}
+		this.levels[vertex] = level;
+	}
+
+	private boolean isAffected(int vertex) {
+		return (this.affected[vertex >>> 6] & (1L << vertex)) != 0;
 	}
 
-	public void setChildrenMap(Map<Integer, Set<Integer>> childrenMap) {
-		this.childrenMap = childrenMap;
+	private void markAffected(int vertex) {
+		this.affected[vertex >>> 6] |= 1L << vertex;
+		this.affectedVertices.add(vertex);
 	}
-	
+
+	private void unmarkAffected(int vertex) {
+		this.affected[vertex >>> 6] &= ~(1L << vertex);
+	}
+
+	private void swapLevels() {
+		Frontier swap = this.current;
+		this.current = this.next;
+		this.next = swap;
+		this.next.clear();
+	}
+
+
+	/**
+	 * Distances only grow while the buckets are scanned, so a bucket per distance serves as the priority queue.
+	 */
+	private void push(int distance, int vertex) {
+		while (this.buckets.size() <= distance) {
+			this.buckets.add(new Frontier());
+		}
+		this.buckets.get(distance).add(vertex);
+		this.lowestBucket = Math.min(this.lowestBucket, distance);
+		this.highestBucket = Math.max(this.highestBucket, distance);
+	}
+
 }
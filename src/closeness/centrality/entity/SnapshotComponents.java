@@ -0,0 +1,230 @@
+package closeness.centrality.entity;
+
+import java.util.Arrays;
+
+/**
+ * Weakly connected components of every snapshot of an insertion only graph, snapshot t holding the edges inserted at
+ * or before t. The size of the component of a source bounds the number of vertices it reaches.
+ *
+ * The components are recorded by one union-find sweep over the snapshots. Components only grow, so rather than V * T
+ * entries it keeps the forest of the sweep without path compression: each vertex stores the root it was linked to and
+ * the snapshot of the link, and each root the snapshots in which its size changed. That is O(V) ints in total, a query
+ * walks the O(log V) links of the vertex.
+ */
+public final class SnapshotComponents {
+
+	private final int numVertices;
+	private final int numSnapshots;
+
+	// Root the vertex was linked to and the snapshot of the link, Integer.MAX_VALUE if it stays a root
+	private final int[] linkParents;
+	private final int[] linkTimes;
+
+	// Sizes of vertex v while it is a root are historySizes[historyOffsets[v]] to historySizes[historyOffsets[v + 1] - 1],
+	// each from snapshot historySnapshots[i] on. The size is 1 before the first change.
+	private final int[] historyOffsets;
+	private final int[] historySnapshots;
+	private final int[] historySizes;
+
+	private final int[] numComponents;
+
+	private SnapshotComponents(int numVertices, int numSnapshots, int[] linkParents, int[] linkTimes, int[] historyOffsets, int[] historySnapshots, int[] historySizes, int[] numComponents) {
+		this.numVertices = numVertices;
+		this.numSnapshots = numSnapshots;
+		this.linkParents = linkParents;
+		this.linkTimes = linkTimes;
+		this.historyOffsets = historyOffsets;
+		this.historySnapshots = historySnapshots;
+		this.historySizes = historySizes;
+		this.numComponents = numComponents;
+	}
+
+	/**
+	 * Adds the edges of the graph to a union-find in the order of their timestamps, end times are ignored.
+	 *
+	 * The edges of each vertex are sorted by timestamp, so the sweep keeps a cursor per vertex and files the vertex
+	 * under the timestamp of its next edge. Snapshot t then visits only the vertices with edges inserted at t.
+	 */
+	public static SnapshotComponents sweep(CondensedGraph graph, int numSnapshots) {
+
+		int numVertices = graph.getNumVertices();
+		UnionFind union = new UnionFind(numVertices);
+
+		int[] linkParents = new int[numVertices];
+		int[] linkTimes = new int[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			linkParents[i] = i;
+		}
+		Arrays.fill(linkTimes, Integer.MAX_VALUE);
+
+		// Every union makes one root grow, so there are fewer than V size changes. A root that grows several times
+		// in one snapshot keeps a single change.
+		int[] changeRoots = new int[numVertices];
+		int[] changeSnapshots = new int[numVertices];
+		int[] changeSizes = new int[numVertices];
+		int[] lastChange = new int[numVertices];
+		Arrays.fill(lastChange, -1);
+		int numChanges = 0;
+
+		int[] numComponents = new int[numSnapshots];
+
+		// Vertices filed under the timestamp of their next edge, as linked lists
+		int[] cursors = new int[numVertices];
+		int[] bucketHeads = new int[numSnapshots];
+		int[] bucketNext = new int[numVertices];
+		Arrays.fill(bucketHeads, -1);
+
+		for (int vertex = 0; vertex < numVertices; vertex++) {
+			cursors[vertex] = graph.begin(vertex);
+			if (cursors[vertex] < graph.end(vertex)) {
+				int time = graph.timestamp(cursors[vertex]);
+				bucketNext[vertex] = bucketHeads[time];
+				bucketHeads[time] = vertex;
+			}
+		}
+
+		for (int snapshot = 0; snapshot < numSnapshots; snapshot++) {
+
+			int vertex = bucketHeads[snapshot];
+			while (vertex != -1) {
+
+				int nextVertex = bucketNext[vertex];
+
+				int edge = cursors[vertex];
+				for (; edge < graph.end(vertex) && graph.timestamp(edge) == snapshot; edge++) {
+
+					int first = union.find(vertex);
+					int second = union.find(graph.target(edge));
+
+					int root = union.union(first, second);
+					if (root == -1) {
+						continue;
+					}
+
+					int other = root == first ? second : first;
+					linkParents[other] = root;
+					linkTimes[other] = snapshot;
+
+					int last = lastChange[root];
+					if (last != -1 && changeSnapshots[last] == snapshot) {
+						changeSizes[last] = union.getSize(root);
+					} else {
+						changeRoots[numChanges] = root;
+						changeSnapshots[numChanges] = snapshot;
+						changeSizes[numChanges] = union.getSize(root);
+						lastChange[root] = numChanges;
+						numChanges++;
+					}
+
+				}
+				cursors[vertex] = edge;
+
+				// Later timestamp, the vertex is visited again in that snapshot
+				if (edge < graph.end(vertex)) {
+					int time = graph.timestamp(edge);
+					bucketNext[vertex] = bucketHeads[time];
+					bucketHeads[time] = vertex;
+				}
+
+				vertex = nextVertex;
+
+			}
+
+			numComponents[snapshot] = union.getNumComponents();
+
+		}
+
+		// Group the changes by root, they stay sorted by snapshot
+		int[] historyOffsets = new int[numVertices + 1];
+		for (int i = 0; i < numChanges; i++) {
+			historyOffsets[changeRoots[i] + 1]++;
+		}
+		for (int i = 0; i < numVertices; i++) {
+			historyOffsets[i + 1] += historyOffsets[i];
+		}
+
+		int[] historySnapshots = new int[numChanges];
+		int[] historySizes = new int[numChanges];
+		int[] positions = Arrays.copyOf(historyOffsets, numVertices);
+		for (int i = 0; i < numChanges; i++) {
+			int position = positions[changeRoots[i]]++;
+			historySnapshots[position] = changeSnapshots[i];
+			historySizes[position] = changeSizes[i];
+		}
+
+		return new SnapshotComponents(numVertices, numSnapshots, linkParents, linkTimes, historyOffsets, historySnapshots, historySizes, numComponents);
+
+	}
+
+	public int getNumVertices() {
+		return this.numVertices;
+	}
+
+	public int getNumSnapshots() {
+		return this.numSnapshots;
+	}
+
+	public int getNumComponents(int snapshot) {
+		return this.numComponents[snapshot];
+	}
+
+	/**
+	 * Id of the component of the vertex in the snapshot, one of its vertices. Two vertices are in the same component
+	 * of a snapshot if and only if they get the same id, which stays the same until the component is merged into a
+	 * larger one.
+	 */
+	public int getComponentId(int vertex, int snapshot) {
+		while (this.linkTimes[vertex] <= snapshot) {
+			vertex = this.linkParents[vertex];
+		}
+		return vertex;
+	}
+
+	public int getComponentSize(int vertex, int snapshot) {
+
+		int root = this.getComponentId(vertex, snapshot);
+
+		// Last change at or before the snapshot
+		int low = this.historyOffsets[root];
+		int high = this.historyOffsets[root + 1];
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (this.historySnapshots[middle] <= snapshot) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low == this.historyOffsets[root] ? 1 : this.historySizes[low - 1];
+
+	}
+
+	/**
+	 * Component sizes of the vertex in all the snapshots, sizes must hold at least numSnapshots entries.
+	 */
+	public void getComponentSizes(int vertex, int[] sizes) {
+
+		// The vertex is the root of its component until its link time, then its parent takes over
+		int from = 0;
+		while (from < this.numSnapshots) {
+
+			int to = Math.min(this.linkTimes[vertex], this.numSnapshots);
+
+			int change = this.historyOffsets[vertex];
+			int changeEnd = this.historyOffsets[vertex + 1];
+			int size = 1;
+			for (int snapshot = from; snapshot < to; snapshot++) {
+				while (change < changeEnd && this.historySnapshots[change] <= snapshot) {
+					size = this.historySizes[change++];
+				}
+				sizes[snapshot] = size;
+			}
+
+			from = to;
+			vertex = this.linkParents[vertex];
+
+		}
+
+	}
+
+}
@@ -0,0 +1,40 @@
+package closeness.centrality.entity;
+
+/**
+ * Edges of a condensed graph inserted at or before one snapshot. End times are not looked at.
+ *
+ * Nothing is copied: the outgoing edges of vertex v are the indices begin(v) to end(v) - 1 of the condensed graph,
+ * a prefix of its edges in start time order. end(v) is a binary search, callers scanning the edges of a vertex
+ * should read it once.
+ */
+public final class SnapshotView {
+
+	private final CondensedGraph graph;
+	private final int snapshot;
+
+	SnapshotView(CondensedGraph graph, int snapshot) {
+		this.graph = graph;
+		this.snapshot = snapshot;
+	}
+
+	public int getSnapshot() {
+		return this.snapshot;
+	}
+
+	public int begin(int vertex) {
+		return this.graph.begin(vertex);
+	}
+
+	public int end(int vertex) {
+		return this.graph.end(vertex, this.snapshot);
+	}
+
+	public int degree(int vertex) {
+		return this.end(vertex) - this.begin(vertex);
+	}
+
+	public int target(int edge) {
+		return this.graph.target(edge);
+	}
+
+}
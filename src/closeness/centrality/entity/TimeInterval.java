@@ -54,6 +54,18 @@ public class TimeInterval implements Comparable<TimeInterval> {
 		return new TimeInterval(this.getStartTime(), other.getEndTime());
 	}
 	
+	/**
+	 * Same as {@link #intersect(TimeInterval)} for an interval given by its bounds.
+	 */
+	public TimeInterval intersect(int startTime, int endTime) {
+		int start = Math.max(this.startTime, startTime);
+		int end = Math.min(this.endTime, endTime);
+		if (end < start) {
+			return null;
+		}
+		return new TimeInterval(start, end);
+	}
+	
 	@Override
 	public String toString() {
 		return "[" + this.startTime + ", " + this.endTime + "]"; 
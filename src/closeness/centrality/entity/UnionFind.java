@@ -0,0 +1,78 @@
+package closeness.centrality.entity;
+
+/**
+ * Disjoint sets of vertices with union by size and path halving, near constant time per operation.
+ * Sets only merge, the snapshot sweeps of SnapshotComponents add edges in time order.
+ */
+public final class UnionFind {
+
+	private final int[] parents;
+	private final int[] sizes;
+	private int numComponents;
+
+	public UnionFind(int numVertices) {
+		this.parents = new int[numVertices];
+		this.sizes = new int[numVertices];
+		for (int i = 0; i < numVertices; i++) {
+			this.parents[i] = i;
+			this.sizes[i] = 1;
+		}
+		this.numComponents = numVertices;
+	}
+
+	public int getNumVertices() {
+		return this.parents.length;
+	}
+
+	public int getNumComponents() {
+		return this.numComponents;
+	}
+
+	/**
+	 * Root of the component of the vertex. Every vertex on the way is linked to its grandparent.
+	 */
+	public int find(int vertex) {
+		while (vertex != this.parents[vertex]) {
+			this.parents[vertex] = this.parents[this.parents[vertex]];
+			vertex = this.parents[vertex];
+		}
+		return vertex;
+	}
+
+	/**
+	 * Merges the components of the two vertices, the root of the smaller one is linked to the root of the larger one.
+	 * Returns the root of the merged component, or -1 if the vertices were already in the same component.
+	 */
+	public int union(int first, int second) {
+
+		int root = this.find(first);
+		int other = this.find(second);
+		if (root == other) {
+			return -1;
+		}
+
+		if (this.sizes[root] < this.sizes[other]) {
+			int swap = root;
+			root = other;
+			other = swap;
+		}
+		this.parents[other] = root;
+		this.sizes[root] += this.sizes[other];
+		this.numComponents--;
+
+		return root;
+
+	}
+
+	public boolean connected(int first, int second) {
+		return this.find(first) == this.find(second);
+	}
+
+	/**
+	 * Size of the component of the vertex.
+	 */
+	public int getSize(int vertex) {
+		return this.sizes[this.find(vertex)];
+	}
+
+}
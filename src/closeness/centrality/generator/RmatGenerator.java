@@ -0,0 +1,460 @@
+package closeness.centrality.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import closeness.centrality.entity.CondensedGraph;
+import closeness.centrality.entity.DeltaIndex;
+import closeness.centrality.entity.IdMapping;
+import closeness.centrality.io.TegFile;
+
+/**
+ * Seeded R-MAT generator of time evolving graphs with 2^scale vertices and about edgeFactor * 2^scale edges.
+ *
+ * The vertex range is cut into blocks by the top bits of the source. R-MAT picks the source bit of each level
+ * independently of the other levels, so each block gets its expected share of the edges and is generated
+ * with its own random stream. Blocks are written in order, so the output only depends on the seed and not on
+ * the parallelism. Duplicate edges and self loops are dropped, an edge list file may only hold each edge once.
+ */
+public class RmatGenerator {
+
+	public enum Timestamps {
+		UNIFORM, // Every snapshot is equally likely
+		BURSTY // A few snapshots get most of the edges
+	}
+
+	// Top source bits that select a block, the largest block holds about (a + b)^12 of the edges
+	private static final int MAX_BLOCK_BITS = 12;
+
+	private final int scale;
+	private final int edgeFactor;
+	private final int numSnapshots;
+	private final long seed;
+
+	private double a = 0.57;
+	private double b = 0.19;
+	private double c = 0.19;
+	private Timestamps timestamps = Timestamps.UNIFORM;
+	private double lifetime = 0;
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+
+	private static final Logger logger = LoggerFactory.getLogger(RmatGenerator.class);
+
+	public RmatGenerator(int scale, int edgeFactor, int numSnapshots, long seed) {
+		if (scale < 1 || scale > 30) {
+			throw new IllegalArgumentException("Scale must be 1 to 30, got " + scale + ".");
+		}
+		if (edgeFactor < 1 || ((long) edgeFactor << scale) > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Edge factor " + edgeFactor + " is out of range at scale " + scale + ".");
+		}
+		if (numSnapshots < 1) {
+			throw new IllegalArgumentException("Number of snapshots must be positive, got " + numSnapshots + ".");
+		}
+		this.scale = scale;
+		this.edgeFactor = edgeFactor;
+		this.numSnapshots = numSnapshots;
+		this.seed = seed;
+	}
+
+	/**
+	 * Quadrant probabilities, d is 1 - a - b - c. The defaults are the Graph500 ones.
+	 */
+	public void setProbabilities(double a, double b, double c) {
+		if (a <= 0 || b <= 0 || c <= 0 || a + b + c >= 1) {
+			throw new IllegalArgumentException("Quadrant probabilities must be positive and sum to less than 1.");
+		}
+		this.a = a;
+		this.b = b;
+		this.c = c;
+	}
+
+	public void setTimestamps(Timestamps timestamps) {
+		this.timestamps = timestamps;
+	}
+
+	/**
+	 * Mean edge lifetime as a fraction of the snapshots. A positive lifetime gives each edge an end time,
+	 * i.e. the interval format of the deletion engine, 0 gives insertions only.
+	 */
+	public void setLifetime(double lifetime) {
+		if (lifetime < 0 || lifetime > 1) {
+			throw new IllegalArgumentException("Lifetime must be 0 to 1, got " + lifetime + ".");
+		}
+		this.lifetime = lifetime;
+	}
+
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism + ".");
+		}
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Streams "source,target,timestamp" lines, or "source,target,startTime,endTime" lines with a lifetime.
+	 */
+	public void writeEdgeList(String path) throws IOException {
+
+		logger.debug("+writeEdgeList({})", path);
+
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(path), 1 << 20)) {
+			long numEdges = this.generate(true, block -> out.write(block.text, 0, block.textLength));
+			logger.info("Number of edges is {}.", numEdges);
+		}
+
+		logger.debug("-writeEdgeList({})", path);
+
+	}
+
+	/**
+	 * Writes a TEG file. Vertices without edges and snapshots without timestamps are left out the way the
+	 * edge list reader leaves them out, so both formats load into the same graph.
+	 */
+	public void writeBinary(String path) throws IOException {
+
+		logger.debug("+writeBinary({})", path);
+
+		List<Block> blocks = new ArrayList<Block>();
+		long total = this.generate(false, blocks::add);
+		int numEdges = (int) total;
+		logger.info("Number of edges is {}.", numEdges);
+
+		boolean withEndTimes = this.lifetime > 0;
+		int[] sources = new int[numEdges];
+		int[] targets = new int[numEdges];
+		int[] startTimes = new int[numEdges];
+		int[] endTimes = withEndTimes ? new int[numEdges] : null;
+
+		int offset = 0;
+		for (int i = 0; i < blocks.size(); i++) {
+			Block block = blocks.get(i);
+			System.arraycopy(block.sources, 0, sources, offset, block.size);
+			System.arraycopy(block.targets, 0, targets, offset, block.size);
+			System.arraycopy(block.startTimes, 0, startTimes, offset, block.size);
+			if (withEndTimes) {
+				System.arraycopy(block.endTimes, 0, endTimes, offset, block.size);
+			}
+			offset += block.size;
+			blocks.set(i, null);
+		}
+
+		long[] vertexIds = compact(1 << this.scale, numEdges, sources, targets);
+		long[] timestampIds = compact(this.numSnapshots, numEdges, startTimes, endTimes);
+		int numVertices = vertexIds.length;
+		int numSnapshots = timestampIds.length;
+		IdMapping ids = new IdMapping(isIdentity(vertexIds) ? null : vertexIds, isIdentity(timestampIds) ? null : timestampIds);
+
+		CondensedGraph condensedGraph = CondensedGraph.build(numVertices, numSnapshots, numEdges, sources, targets, startTimes, endTimes);
+		TegFile file;
+		if (withEndTimes) {
+			DeltaIndex insertionIndex = DeltaIndex.build(numVertices, numSnapshots, numEdges, sources, targets, startTimes);
+			DeltaIndex deletionIndex = DeltaIndex.build(numVertices, numSnapshots, numEdges, sources, targets, endTimes);
+			file = new TegFile(numVertices, numSnapshots, condensedGraph, ids, insertionIndex, deletionIndex);
+		} else {
+			DeltaIndex deltaIndex = DeltaIndex.build(numVertices, numSnapshots, numEdges, sources, targets, startTimes);
+			file = new TegFile(numVertices, numSnapshots, condensedGraph, ids, deltaIndex);
+		}
+		file.write(path);
+
+		logger.debug("-writeBinary({})", path);
+
+	}
+
+	private interface BlockConsumer {
+		void accept(Block block) throws IOException;
+	}
+
+	/**
+	 * Generates the blocks concurrently and hands them to the consumer in block order.
+	 * At most two blocks per thread are in flight, which bounds the memory of the edge list output.
+	 */
+	private long generate(boolean asText, BlockConsumer consumer) throws IOException {
+
+		int blockBits = Math.min(this.scale, MAX_BLOCK_BITS);
+		int numBlocks = 1 << blockBits;
+		double[] cumulativeWeights = this.snapshotWeights();
+
+		long numEdges = 0;
+		int window = 2 * this.parallelism;
+		List<ForkJoinTask<Block>> tasks = new ArrayList<ForkJoinTask<Block>>(numBlocks);
+
+		ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+		try {
+			for (int i = 0; i < Math.min(window, numBlocks); i++) {
+				tasks.add(this.submit(pool, i, blockBits, cumulativeWeights, asText));
+			}
+			for (int i = 0; i < numBlocks; i++) {
+				Block block = tasks.get(i).get();
+				tasks.set(i, null);
+				if (i + window < numBlocks) {
+					tasks.add(this.submit(pool, i + window, blockBits, cumulativeWeights, asText));
+				}
+				numEdges += block.size;
+				consumer.accept(block);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while generating the graph.", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to generate the graph.", e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return numEdges;
+
+	}
+
+	private ForkJoinTask<Block> submit(ForkJoinPool pool, int block, int blockBits, double[] cumulativeWeights, boolean asText) {
+		return pool.submit(() -> {
+			Block result = this.generateBlock(block, blockBits, cumulativeWeights);
+			if (asText) {
+				result.format();
+			}
+			return result;
+		});
+	}
+
+	private Block generateBlock(int block, int blockBits, double[] cumulativeWeights) {
+
+		SplittableRandom random = new SplittableRandom(mix(this.seed) ^ mix(block + 1));
+
+		double ab = this.a + this.b;
+		double aGivenTop = this.a / ab;
+		double cGivenBottom = this.c / (1 - ab);
+
+		// Expected share of the edges whose source starts with the block bits
+		double share = 1;
+		for (int level = 0; level < blockBits; level++) {
+			share *= bit(block, blockBits, level) == 0 ? ab : 1 - ab;
+		}
+		int count = (int) Math.round(share * ((long) this.edgeFactor << this.scale));
+
+		long[] edges = new long[count];
+		for (int i = 0; i < count; i++) {
+			int source = 0;
+			int target = 0;
+			for (int level = 0; level < this.scale; level++) {
+				int sourceBit;
+				int targetBit;
+				if (level < blockBits) {
+					sourceBit = bit(block, blockBits, level);
+					targetBit = random.nextDouble() < (sourceBit == 0 ? aGivenTop : cGivenBottom) ? 0 : 1;
+				} else {
+					double r = random.nextDouble();
+					if (r < this.a) {
+						sourceBit = 0;
+						targetBit = 0;
+					} else if (r < ab) {
+						sourceBit = 0;
+						targetBit = 1;
+					} else if (r < ab + this.c) {
+						sourceBit = 1;
+						targetBit = 0;
+					} else {
+						sourceBit = 1;
+						targetBit = 1;
+					}
+				}
+				source = (source << 1) | sourceBit;
+				target = (target << 1) | targetBit;
+			}
+			edges[i] = ((long) source << 32) | target;
+		}
+
+		// Sources differ between blocks, so duplicates can only occur within a block
+		Arrays.sort(edges);
+
+		Block result = new Block(count, this.lifetime > 0);
+		for (int i = 0; i < count; i++) {
+			if (i > 0 && edges[i] == edges[i - 1]) {
+				continue;
+			}
+			int source = (int) (edges[i] >>> 32);
+			int target = (int) edges[i];
+			if (source == target) {
+				continue;
+			}
+			int startTime = this.nextTimestamp(random, cumulativeWeights);
+			int endTime = this.lifetime > 0 ? this.nextEndTime(random, startTime) : 0;
+			result.add(source, target, startTime, endTime);
+		}
+		return result;
+
+	}
+
+	private static int bit(int block, int blockBits, int level) {
+		return (block >>> (blockBits - 1 - level)) & 1;
+	}
+
+	/**
+	 * Cumulative snapshot weights of bursty timestamps, null for uniform ones.
+	 */
+	private double[] snapshotWeights() {
+
+		if (this.timestamps == Timestamps.UNIFORM) {
+			return null;
+		}
+
+		// Pareto weights with shape 1.5, the heaviest snapshots take a large share of the edges
+		SplittableRandom random = new SplittableRandom(mix(this.seed));
+		double[] cumulativeWeights = new double[this.numSnapshots];
+		double sum = 0;
+		for (int i = 0; i < this.numSnapshots; i++) {
+			sum += Math.pow(1 - random.nextDouble(), -1 / 1.5);
+			cumulativeWeights[i] = sum;
+		}
+		return cumulativeWeights;
+
+	}
+
+	private int nextTimestamp(SplittableRandom random, double[] cumulativeWeights) {
+		if (cumulativeWeights == null) {
+			return random.nextInt(this.numSnapshots);
+		}
+		double r = random.nextDouble() * cumulativeWeights[this.numSnapshots - 1];
+		int index = Arrays.binarySearch(cumulativeWeights, r);
+		return Math.min(index >= 0 ? index + 1 : -index - 1, this.numSnapshots - 1);
+	}
+
+	/**
+	 * Geometric lifetime with the configured mean, cut at the last snapshot.
+	 */
+	private int nextEndTime(SplittableRandom random, int startTime) {
+		double mean = Math.max(1, this.lifetime * this.numSnapshots);
+		long duration = mean <= 1 ? 0 : (long) (Math.log(1 - random.nextDouble()) / Math.log(1 - 1 / mean));
+		return (int) Math.min(this.numSnapshots - 1, startTime + duration);
+	}
+
+	/**
+	 * Replaces the values in the columns by their rank among the values in use, returns the values in use.
+	 */
+	private static long[] compact(int range, int size, int[] first, int[] second) {
+
+		boolean[] used = new boolean[range];
+		for (int i = 0; i < size; i++) {
+			used[first[i]] = true;
+			if (second != null) {
+				used[second[i]] = true;
+			}
+		}
+
+		int[] ranks = new int[range];
+		int count = 0;
+		for (int value = 0; value < range; value++) {
+			ranks[value] = count;
+			if (used[value]) {
+				count++;
+			}
+		}
+
+		long[] values = new long[count];
+		for (int value = 0; value < range; value++) {
+			if (used[value]) {
+				values[ranks[value]] = value;
+			}
+		}
+
+		if (count < range) {
+			for (int i = 0; i < size; i++) {
+				first[i] = ranks[first[i]];
+				if (second != null) {
+					second[i] = ranks[second[i]];
+				}
+			}
+		}
+
+		return values;
+
+	}
+
+	private static boolean isIdentity(long[] sortedValues) {
+		return sortedValues.length == 0 || sortedValues[sortedValues.length - 1] == sortedValues.length - 1;
+	}
+
+	private static long mix(long value) {
+		value ^= value >>> 33;
+		value *= 0xff51afd7ed558ccdL;
+		value ^= value >>> 33;
+		value *= 0xc4ceb9fe1a85ec53L;
+		value ^= value >>> 33;
+		return value;
+	}
+
+
+	/**
+	 * Edges of one block, and their text once formatted.
+	 */
+	private static class Block {
+
+		final int[] sources;
+		final int[] targets;
+		final int[] startTimes;
+		final int[] endTimes;
+		int size;
+
+		byte[] text;
+		int textLength;
+
+		Block(int capacity, boolean withEndTimes) {
+			this.sources = new int[capacity];
+			this.targets = new int[capacity];
+			this.startTimes = new int[capacity];
+			this.endTimes = withEndTimes ? new int[capacity] : null;
+		}
+
+		void add(int source, int target, int startTime, int endTime) {
+			this.sources[this.size] = source;
+			this.targets[this.size] = target;
+			this.startTimes[this.size] = startTime;
+			if (this.endTimes != null) {
+				this.endTimes[this.size] = endTime;
+			}
+			this.size++;
+		}
+
+		void format() {
+			// Four fields of at most 10 digits, their separators and the newline
+			this.text = new byte[this.size * 44];
+			for (int i = 0; i < this.size; i++) {
+				this.append(this.sources[i], ',');
+				this.append(this.targets[i], ',');
+				if (this.endTimes != null) {
+					this.append(this.startTimes[i], ',');
+					this.append(this.endTimes[i], '\n');
+				} else {
+					this.append(this.startTimes[i], '\n');
+				}
+			}
+		}
+
+		private void append(int value, char separator) {
+			int start = this.textLength;
+			do {
+				this.text[this.textLength++] = (byte) ('0' + value % 10);
+				value /= 10;
+			} while (value > 0);
+			// Digits were written lowest first
+			for (int i = start, j = this.textLength - 1; i < j; i++, j--) {
+				byte swap = this.text[i];
+				this.text[i] = this.text[j];
+				this.text[j] = swap;
+			}
+			this.text[this.textLength++] = (byte) separator;
+		}
+
+	}
+
+}
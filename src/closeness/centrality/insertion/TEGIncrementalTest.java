@@ -16,7 +16,7 @@ import java.util.Random;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import tigrex.sg.edu.ntu.utility.FileUtility;
+import closeness.centrality.io.TextFiles;
 
 
 public class TEGIncrementalTest {
@@ -386,8 +386,7 @@ public class TEGIncrementalTest {
 				 
 		this.logger.info("Total running time {},{}", totalRunningTimes[0], totalRunningTimes[1]);
 		
-		FileUtility utility = new FileUtility();
-		utility.writeListToFile(sourceIds, path + ".ids");
+		TextFiles.writeList(sourceIds, path + ".ids");
 		
 		this.logger.info("-randomDegreeTestHelper({})", path);
 
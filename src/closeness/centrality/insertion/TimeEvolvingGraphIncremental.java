@@ -16,8 +16,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import closeness.centrality.entity.EdgeWithTimestamp;
+import closeness.centrality.entity.CondensedGraph;
+import closeness.centrality.entity.DeltaIndex;
+import closeness.centrality.entity.Frontier;
+import closeness.centrality.entity.IdMapping;
+import closeness.centrality.entity.SSSPForest;
 import closeness.centrality.entity.SSSPTree;
+import closeness.centrality.io.EdgeListReader;
+import closeness.centrality.io.TegFile;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,8 +33,11 @@ public class TimeEvolvingGraphIncremental {
 	
 	private int numVertices;
 	private int numSnapshots;
-	private List<List<EdgeWithTimestamp>> condensedGraph;
-	private List<Map<Integer, Set<Integer>>> deltaGraph;
+	private CondensedGraph condensedGraph;
+	private DeltaIndex deltaIndex;
+	private IdMapping ids = IdMapping.IDENTITY;
+	
+	private int parallelism = Runtime.getRuntime().availableProcessors();
 	
 	final private Logger logger = LoggerFactory.getLogger(TimeEvolvingGraphIncremental.class);
 	
@@ -40,6 +49,24 @@ public class TimeEvolvingGraphIncremental {
 		return this.numSnapshots;
 	}
 	
+	/**
+	 * Raw vertex ids and timestamps of the loaded file by vertex and snapshot.
+	 */
+	public IdMapping getIds() {
+		return this.ids;
+	}
+	
+	public int getParallelism() {
+		return this.parallelism;
+	}
+	
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism + ".");
+		}
+		this.parallelism = parallelism;
+	}
+	
 	public void constructGraph(String path) {
 		this.constructGraph(path, false);
 	}
@@ -48,171 +75,57 @@ public class TimeEvolvingGraphIncremental {
 
 		logger.debug("+constructGraph({}, reverseEdges = {})", path, reverseEdges);
 		
-		Set<Integer> vertices = new HashSet<Integer>();
-		Set<Integer> timestamps = new HashSet<Integer>();
+		try {
+			this.loadGraph(EdgeListReader.readInsertions(path, reverseEdges, this.parallelism));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 		
-		Map<Integer, Map<Integer, Integer>> condensed = new HashMap<Integer, Map<Integer, Integer>>() ;
-		Map<Integer, Map<Integer, Set<Integer>>> snapshots = new HashMap<Integer, Map<Integer, Set<Integer>>>();
-
-		try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-		    String line;
-		    String[] parts;
-
-		    int numLines = 0;
-		    
-		    while ((line = br.readLine()) != null) {
-		    	
-		    	numLines++;
-		    	if (numLines % 1000000 == 0) {
-					logger.debug("Reading line {}...", numLines);
-				}
-		    	
-		    	parts = line.split(",");
-		    	
-		    	int source, target;
-		    	
-		    	if (reverseEdges) {
-		    		source = Integer.valueOf(parts[1]);
-			    	target = Integer.valueOf(parts[0]);
-		    	} else {
-			    	source = Integer.valueOf(parts[0]);
-			    	target = Integer.valueOf(parts[1]);
-		    	}
-		    	
-		    	
-		    	int timestamp = Integer.valueOf(parts[2]);
-		    	
-		    	vertices.add(source);
-		    	vertices.add(target);
-		    	timestamps.add(timestamp);
-		    	
-		    	// Update deltaGraph
-	    		if (snapshots.containsKey(timestamp)) {
-		    		Map<Integer, Set<Integer>> snapshot = snapshots.get(timestamp);
-		    		
-		    		if (snapshot.containsKey(source)) {
-		    			if (snapshot.get(source).contains(target)) {
-		    				logger.error("Duplicate edge found ({}, {}, {})", source, target, timestamp);
-		    				System.exit(1);
-		    			} else {
-		    				snapshot.get(source).add(target);
-		    			}
-		    		} else {
-		    			Set<Integer> outgoingVertices = new HashSet<Integer>();
-		    			outgoingVertices.add(target);
-		    			snapshot.put(source, outgoingVertices);
-		    		}
-		    	} else {
-		    		Set<Integer> outgoingVertices = new HashSet<Integer>();
-	    			outgoingVertices.add(target);
-		    		Map<Integer, Set<Integer>> snapshot = new HashMap<Integer, Set<Integer>>();
-	    			snapshot.put(source, outgoingVertices);
-	    			snapshots.put(timestamp, snapshot);
-		    	}
-		    	
-		    	// Update condensedGraph
-		    	if (condensed.containsKey(source)) {
-		    		
-		    		Map<Integer, Integer> outgoingEdges = condensed.get(source);
-		    		
-		    		if (outgoingEdges.containsKey(target)) {
-		    			logger.error("Duplicate edges found ({}, {}), with timestamps {}, {}.", source, target, timestamp, outgoingEdges.get(target));
-		    			System.exit(1);
-		    		} else {
-		    			outgoingEdges.put(target, timestamp);
-		    		}
-		    		
-		    	} else {
-		    		Map<Integer, Integer> outgoingEdges = new HashMap<Integer, Integer>();
-		    		outgoingEdges.put(target, timestamp);
-		    		condensed.put(source, outgoingEdges);
-		    	}
-		    	
-		    }
-		    
-			int minVertexId = Integer.MAX_VALUE;
-			int maxVertexId = 0;
-			int minTimestamp = Integer.MAX_VALUE;
-			int maxTimestamp = 0;
-			
-			for (int v: vertices) {
-				if (v < minVertexId) {
-					minVertexId = v;
-				}
-				if (v > maxVertexId) {
-					maxVertexId = v;
-				}
-			}
-			
-			for (int t: timestamps) {
-				if (t < minTimestamp) {
-					minTimestamp = t;
-				}
-				if (t > maxTimestamp) {
-					maxTimestamp = t;
-				}
-			}
-			
-			logger.info("Number of edges is {}.", numLines);
-			logger.info("Number of vertices is {}.", vertices.size());
-			logger.info("Number of snapshots is {}.", timestamps.size());
-			
-			if (minVertexId != 0) {
-				logger.error("Min vertex id is {}.", minVertexId);
-			}
-			
-			if (minTimestamp != 0) {
-				logger.error("Min timestamp is {}.", minTimestamp);
-			}
-			
-			if (maxVertexId - minVertexId + 1 != vertices.size()) {
-				logger.error("Vertex id normalization error. Max vertex id is {}.", maxVertexId);
-				System.exit(1);
-			}
-
-			if (maxTimestamp - minTimestamp + 1 != timestamps.size()) {
-				logger.error("Timestamp id normalization error. Max timestamp id is {}.", maxTimestamp);
-				System.exit(1);
-			}
-			
-			this.numVertices = vertices.size();
-			this.numSnapshots = timestamps.size();
+		logger.debug("-constructGraph({}, reverseEdges = {})", path, reverseEdges);
 
-			// Build array-based snapshot graph
-			this.deltaGraph = new ArrayList<Map<Integer, Set<Integer>>>(snapshots.size());
-			for (int i = 0; i < snapshots.size(); i++) {
-				Map<Integer, Set<Integer>> delta = snapshots.get(i);
-				
-				this.deltaGraph.add(delta);
-			}
-			
-			// Build array-based condensed graph
-			this.condensedGraph = new ArrayList<List<EdgeWithTimestamp>>(this.numVertices);
-			for (int i = 0; i < this.numVertices; i++) {
-				if (!condensed.containsKey(i)) {
-					this.condensedGraph.add(new ArrayList<EdgeWithTimestamp>());
-					continue;
-				}
-				
-				Map<Integer, Integer> outgoingEdgesMap = condensed.get(i);
-				List<EdgeWithTimestamp> outgoingEdgesList = new ArrayList<EdgeWithTimestamp>(outgoingEdgesMap.size());
-				for (Integer target: outgoingEdgesMap.keySet()) {
-					int timestamp = outgoingEdgesMap.get(target);
-					outgoingEdgesList.add(new EdgeWithTimestamp(target, timestamp));
-				}
-				
-				Collections.sort(outgoingEdgesList);
-				this.condensedGraph.add(outgoingEdgesList);
-			}
-			
-		} catch (FileNotFoundException e) {
+	}
+	
+	public void constructGraphFromBinary(String path) {
+		
+		logger.debug("+constructGraphFromBinary({})", path);
+		
+		try {
+			this.loadGraph(TegFile.read(path));
+		} catch (IOException e) {
 			e.printStackTrace();
+		}
+		
+		logger.debug("-constructGraphFromBinary({})", path);
+		
+	}
+	
+	private void loadGraph(TegFile file) {
+		
+		if (file.getNumDeltaIndexes() != 1) {
+			logger.error("Expected 1 delta index, found {}.", file.getNumDeltaIndexes());
+			System.exit(1);
+		}
+		
+		this.numVertices = file.getNumVertices();
+		this.numSnapshots = file.getNumSnapshots();
+		this.condensedGraph = file.getCondensedGraph();
+		this.ids = file.getIds();
+		this.deltaIndex = file.getDeltaIndex(0);
+		
+	}
+	
+	public void writeBinaryGraph(String path) {
+		
+		logger.debug("+writeBinaryGraph({})", path);
+		
+		try {
+			new TegFile(this.numVertices, this.numSnapshots, this.condensedGraph, this.ids, this.deltaIndex).write(path);
 		} catch (IOException e) {
 			e.printStackTrace();
-		} 
+		}
+		
+		logger.debug("-writeBinaryGraph({})", path);
 		
-		logger.debug("-constructGraph({}, reverseEdges = {})", path, reverseEdges);
-
 	}
 	
 	
@@ -224,7 +137,7 @@ public class TimeEvolvingGraphIncremental {
 		Arrays.fill(centralities, 0);
 		
 		// Values default to be 0
-		int[] totalDistances = new int[this.numSnapshots];
+		long[] totalDistances = new long[this.numSnapshots];
 		
 		int[] discoveredTime = new int[this.numVertices];
 		Arrays.fill(discoveredTime, Integer.MAX_VALUE);
@@ -240,50 +153,54 @@ public class TimeEvolvingGraphIncremental {
 		
 		int[] verticesPerTimestamp = new int[this.numSnapshots];
 
-		boolean hasNext = true;
-				
-		while (hasNext) {
+		// Only the vertices of the current level are visited
+		Frontier current = new Frontier();
+		Frontier next = new Frontier();
+		current.add(source);
+		
+		while (!current.isEmpty()) {
 			
 			Arrays.fill(verticesPerTimestamp, 0);
 			
-			for (int vertex = 0; vertex < this.numVertices; vertex++) {
+			for (int index = 0; index < current.size(); index++) {
 				
-				if (currentLevel[vertex] != Integer.MAX_VALUE) {
+				int vertex = current.get(index);
+				
+				// Newly discovered vertex, update distance at the end
+				if (discoveredTime[vertex] == Integer.MAX_VALUE) {
+					verticesPerTimestamp[currentLevel[vertex]]++;
+				}
+				// Existing vertex, update distance separately
+				else {
 					
-					// Newly discovered vertex, update distance at the end
-					if (discoveredTime[vertex] == Integer.MAX_VALUE) {
-						verticesPerTimestamp[currentLevel[vertex]]++;
-					}
-					// Existing vertex, update distance separately
-					else {
-						
-						for (int time = currentLevel[vertex]; time < discoveredTime[vertex]; time++) {
-							totalDistances[time] += level;
-							sccSize[time]++;
-						}
-						
+					for (int time = currentLevel[vertex]; time < discoveredTime[vertex]; time++) {
+						totalDistances[time] += level;
+						sccSize[time]++;
 					}
 					
-					// Update discovered time
-					discoveredTime[vertex] = currentLevel[vertex];
+				}
+				
+				// Update discovered time
+				discoveredTime[vertex] = currentLevel[vertex];
+				
+				//Add next level
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
 					
-					//Add next level
-					for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
-						
-						int neighbor = edge.getTarget();
-						int neighborDiscoverTime = Math.max(edge.getTimestamp(), currentLevel[vertex]);
+					int neighbor = this.condensedGraph.target(edge);
+					int neighborDiscoverTime = Math.max(this.condensedGraph.timestamp(edge), currentLevel[vertex]);
+					
+					if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
 						
-						if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
-							
-							if (neighborDiscoverTime < nextLevel[neighbor]) {
-								nextLevel[neighbor] = neighborDiscoverTime;
+						if (neighborDiscoverTime < nextLevel[neighbor]) {
+							if (nextLevel[neighbor] == Integer.MAX_VALUE) {
+								next.add(neighbor);
 							}
-							
+							nextLevel[neighbor] = neighborDiscoverTime;
 						}
 						
-						
 					}
 					
+					
 				}
 				
 			}
@@ -292,23 +209,27 @@ public class TimeEvolvingGraphIncremental {
 			for (int i = 0; i < this.numSnapshots; i++) {
 								
 				for (int j = i; j < this.numSnapshots; j++) {
-					totalDistances[j] += level * verticesPerTimestamp[i];
+					totalDistances[j] += (long) level * verticesPerTimestamp[i];
 					sccSize[j] += verticesPerTimestamp[i];
 				}
 
 			}	
 			
 			// Begin next iteration
-			hasNext = false;
-			for (int i = 0; i < this.numVertices; i++) {
-				currentLevel[i] = nextLevel[i];
-				if (nextLevel[i] != Integer.MAX_VALUE) {
-					hasNext = true;
-					nextLevel[i] = Integer.MAX_VALUE;
-				}
-				
+			for (int i = 0; i < current.size(); i++) {
+				currentLevel[current.get(i)] = Integer.MAX_VALUE;
+			}
+			for (int i = 0; i < next.size(); i++) {
+				int vertex = next.get(i);
+				currentLevel[vertex] = nextLevel[vertex];
+				nextLevel[vertex] = Integer.MAX_VALUE;
 			}
 			
+			Frontier swap = current;
+			current = next;
+			next = swap;
+			next.clear();
+			
 			level++;
 			
 		}
@@ -335,7 +256,7 @@ public class TimeEvolvingGraphIncremental {
 		Arrays.fill(centralities, 0);
 		
 		// Values default to be 0
-		int[] totalDistances = new int[this.numSnapshots];
+		long[] totalDistances = new long[this.numSnapshots];
 		
 		int[] discoveredTime = new int[this.numVertices];
 		Arrays.fill(discoveredTime, Integer.MAX_VALUE);
@@ -374,10 +295,10 @@ public class TimeEvolvingGraphIncremental {
 				discoveredTime[vertex] = currentTime;
 				
 				//Add next level
-				for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
 					
-					int neighbor = edge.getTarget();
-					int neighborDiscoverTime = Math.max(edge.getTimestamp(), currentTime);
+					int neighbor = this.condensedGraph.target(edge);
+					int neighborDiscoverTime = Math.max(this.condensedGraph.timestamp(edge), currentTime);
 					
 					if (neighborDiscoverTime < discoveredTime[neighbor] && (!currentLevel.containsKey(neighbor) || neighborDiscoverTime < currentLevel.get(neighbor))) {
 						
@@ -397,14 +318,14 @@ public class TimeEvolvingGraphIncremental {
 			int localSummary = verticesPerTimestamp[0];
 			int positiveCount = startingPoints[0] - endingPoints[0];
 			
-			totalDistances[0] += level * (localSummary + positiveCount);
+			totalDistances[0] += (long) level * (localSummary + positiveCount);
 			sccSize[0] += (localSummary + positiveCount);
 				
 			for (int i = 1; i < this.numSnapshots; i++) {
 				localSummary += verticesPerTimestamp[i];
 				positiveCount += startingPoints[i] - endingPoints[i];
 
-				totalDistances[i] += level * (localSummary + positiveCount);
+				totalDistances[i] += (long) level * (localSummary + positiveCount);
 				sccSize[i] += (localSummary + positiveCount);
 			}
 			
@@ -437,7 +358,7 @@ public class TimeEvolvingGraphIncremental {
 		Arrays.fill(centralities, 0);
 		
 		// Values default to be 0
-		int[] totalDistances = new int[this.numSnapshots];
+		long[] totalDistances = new long[this.numSnapshots];
 		
 		int[] discoveredTime = new int[this.numVertices];
 		Arrays.fill(discoveredTime, Integer.MAX_VALUE);
@@ -453,42 +374,46 @@ public class TimeEvolvingGraphIncremental {
 		
 		int[] verticesPerTimestamp = new int[this.numSnapshots];
 		
-		boolean hasNext = true;
-				
-		while (hasNext) {
+		// Only the vertices of the current level are visited
+		Frontier current = new Frontier();
+		Frontier next = new Frontier();
+		current.add(source);
+		
+		while (!current.isEmpty()) {
 			
 			Arrays.fill(verticesPerTimestamp, 0);
 			
-			for (int vertex = 0; vertex < this.numVertices; vertex++) {
+			for (int index = 0; index < current.size(); index++) {
 				
+				int vertex = current.get(index);
 				int t = currentLevel[vertex];
 				
-				if (t != Integer.MAX_VALUE) {
 
-					verticesPerTimestamp[t]++;
-					
-					if (discoveredTime[vertex] != Integer.MAX_VALUE) {
-						verticesPerTimestamp[discoveredTime[vertex]]--;
-					}
+				verticesPerTimestamp[t]++;
+				
+				if (discoveredTime[vertex] != Integer.MAX_VALUE) {
+					verticesPerTimestamp[discoveredTime[vertex]]--;
+				}
+				
+				// Update discovered time
+				discoveredTime[vertex] = t;
+				
+				//Add next level
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
 					
-					// Update discovered time
-					discoveredTime[vertex] = t;
+					int neighbor = this.condensedGraph.target(edge);
+					int neighborDiscoverTime = Math.max(this.condensedGraph.timestamp(edge), currentLevel[vertex]);
 					
-					//Add next level
-					for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
-						
-						int neighbor = edge.getTarget();
-						int neighborDiscoverTime = Math.max(edge.getTimestamp(), currentLevel[vertex]);
+					if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
 						
-						if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
-							
-							if (neighborDiscoverTime < nextLevel[neighbor]) {
-								nextLevel[neighbor] = neighborDiscoverTime;
+						if (neighborDiscoverTime < nextLevel[neighbor]) {
+							if (nextLevel[neighbor] == Integer.MAX_VALUE) {
+								next.add(neighbor);
 							}
-							
+							nextLevel[neighbor] = neighborDiscoverTime;
 						}
+						
 					}
-					
 				}
 				
 			}
@@ -499,19 +424,24 @@ public class TimeEvolvingGraphIncremental {
 			for (int i = 0; i < this.numSnapshots; i++) {
 				localSummary += verticesPerTimestamp[i];
 				sccSize[i] += localSummary;
-				totalDistances[i] += level * localSummary;
+				totalDistances[i] += (long) level * localSummary;
 			}
 			
 			// Begin next iteration
-			hasNext = false;
-			for (int i = 0; i < this.numVertices; i++) {
-				currentLevel[i] = nextLevel[i];
-				if (nextLevel[i] != Integer.MAX_VALUE) {
-					hasNext = true;
-					nextLevel[i] = Integer.MAX_VALUE;
-				}
+			for (int i = 0; i < current.size(); i++) {
+				currentLevel[current.get(i)] = Integer.MAX_VALUE;
+			}
+			for (int i = 0; i < next.size(); i++) {
+				int vertex = next.get(i);
+				currentLevel[vertex] = nextLevel[vertex];
+				nextLevel[vertex] = Integer.MAX_VALUE;
 			}
 			
+			Frontier swap = current;
+			current = next;
+			next = swap;
+			next.clear();
+			
 			level++;
 			
 		}
@@ -549,52 +479,56 @@ public class TimeEvolvingGraphIncremental {
 		int[] startingPoints = new int[this.numSnapshots];
 		int[] endingPoints = new int[this.numSnapshots];
 		
-		boolean hasNext = true;
+		// Only the vertices of the current level are visited
+		Frontier current = new Frontier();
+		Frontier next = new Frontier();
+		current.add(source);
 		
-		while (hasNext) {
+		while (!current.isEmpty()) {
 			
 			Arrays.fill(verticesPerTimestamp, 0);
 			Arrays.fill(startingPoints, 0);
 			Arrays.fill(endingPoints, 0);
 			
-			for (int vertex = 0; vertex < this.numVertices; vertex++) {
+			for (int index = 0; index < current.size(); index++) {
 				
-				if (currentLevel[vertex] != Integer.MAX_VALUE) {
+				int vertex = current.get(index);
 
-					totalLabels++;
+				totalLabels++;
 
-					// Newly discovered vertex, update distance at the end
-					if (discoveredTime[vertex] == Integer.MAX_VALUE) {
-						verticesPerTimestamp[currentLevel[vertex]]++;
-					}
-					// Existing vertex, update distance separately
-					else {
-						
-						startingPoints[currentLevel[vertex]]++;
-						endingPoints[discoveredTime[vertex]]++;
-						
-					}
+				// Newly discovered vertex, update distance at the end
+				if (discoveredTime[vertex] == Integer.MAX_VALUE) {
+					verticesPerTimestamp[currentLevel[vertex]]++;
+				}
+				// Existing vertex, update distance separately
+				else {
 					
-					// Update discovered time
-					discoveredTime[vertex] = currentLevel[vertex];
+					startingPoints[currentLevel[vertex]]++;
+					endingPoints[discoveredTime[vertex]]++;
 					
-					//Add next level
-					for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
-						
-						int neighbor = edge.getTarget();
-						int neighborDiscoverTime = Math.max(edge.getTimestamp(), currentLevel[vertex]);
+				}
+				
+				// Update discovered time
+				discoveredTime[vertex] = currentLevel[vertex];
+				
+				//Add next level
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
+					
+					int neighbor = this.condensedGraph.target(edge);
+					int neighborDiscoverTime = Math.max(this.condensedGraph.timestamp(edge), currentLevel[vertex]);
+					
+					if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
 						
-						if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
-							
-							if (neighborDiscoverTime < nextLevel[neighbor]) {
-								nextLevel[neighbor] = neighborDiscoverTime;
+						if (neighborDiscoverTime < nextLevel[neighbor]) {
+							if (nextLevel[neighbor] == Integer.MAX_VALUE) {
+								next.add(neighbor);
 							}
-							
+							nextLevel[neighbor] = neighborDiscoverTime;
 						}
 						
-						
 					}
 					
+					
 				}
 				
 			}
@@ -613,15 +547,19 @@ public class TimeEvolvingGraphIncremental {
 			}
 			
 			// Begin next iteration
-			hasNext = false;
-			for (int i = 0; i < this.numVertices; i++) {
-				currentLevel[i] = nextLevel[i];
-				if (nextLevel[i] != Integer.MAX_VALUE) {
-					hasNext = true;
-					nextLevel[i] = Integer.MAX_VALUE;
-				}
-				
+			for (int i = 0; i < current.size(); i++) {
+				currentLevel[current.get(i)] = Integer.MAX_VALUE;
 			}
+			for (int i = 0; i < next.size(); i++) {
+				int vertex = next.get(i);
+				currentLevel[vertex] = nextLevel[vertex];
+				nextLevel[vertex] = Integer.MAX_VALUE;
+			}
+			
+			Frontier swap = current;
+			current = next;
+			next = swap;
+			next.clear();
 			
 		}
 		
@@ -639,14 +577,14 @@ public class TimeEvolvingGraphIncremental {
 		double[] centralities = new double[this.numSnapshots];
 		
 		Map<Integer, Set<Integer>> initialGraph = new HashMap<Integer, Set<Integer>>();
-		this.mergeDelta(initialGraph, this.deltaGraph.get(0));
+		this.mergeDelta(initialGraph, 0);
 
 		int[] distance = new int[this.numVertices];
 		for (int i = 0; i < this.numVertices; i++) {
 			distance[i] = Integer.MAX_VALUE;
 		}
 		
-		int totalDistances = 0;		
+		long totalDistances = 0;		
 		int numReachableVertices = 1;
 		
 		int level = 0;
@@ -660,7 +598,7 @@ public class TimeEvolvingGraphIncremental {
 		while (currentLevel.size() > 0) {
 			
 			// Update distance
-			totalDistances += level * currentLevel.size();
+			totalDistances += (long) level * currentLevel.size();
 
 			// Add next level
 			for (int vertex: currentLevel) {
@@ -697,14 +635,15 @@ public class TimeEvolvingGraphIncremental {
 		
 		
 		for (int t = 1; t < this.numSnapshots; t++) {
-			Map<Integer, Set<Integer>> delta = this.deltaGraph.get(t);
-			
-			this.mergeDelta(initialGraph, delta);
+			this.mergeDelta(initialGraph, t);
 			
 			Map<Integer, Integer> affectedVertices = new HashMap<Integer, Integer>();
 			
-			// Get all directly affected vertices
-			for (int from: delta.keySet()) {
+			// Get all directly affected vertices, the delta edges are grouped by source
+			for (int edge = this.deltaIndex.begin(t); edge < this.deltaIndex.end(t); edge++) {
+				int from = this.deltaIndex.source(edge);
+				if (edge > this.deltaIndex.begin(t) && this.deltaIndex.source(edge - 1) == from) continue;
+				
 				int levelFrom = distance[from];
 				
 				if (levelFrom == Integer.MAX_VALUE) continue;
@@ -889,19 +828,12 @@ public class TimeEvolvingGraphIncremental {
 		double[] centralities = new double[this.numSnapshots];
 		Arrays.fill(centralities, 0);
 		
-		SSSPTree tree = this.buildSSSPTree(source, this.deltaGraph.get(0));
+		SSSPTree tree = new SSSPTree(this.numVertices, this.deltaIndex, 0, source);
 		centralities[0] = tree.getCentrality(this.numVertices);
 		
 		for (int i = 1; i < this.numSnapshots; i++) {
-			Map<Integer, Set<Integer>> edges = this.deltaGraph.get(i);
 			
-			for (int s: edges.keySet()) {
-				Set<Integer> ts = edges.get(s);
-				for (int t: ts) {
-					tree.insertDirectedEdge(s, t);
-				}
-				
-			}
+			tree.applyBatch(this.deltaIndex, i, null, 0);
 			
 			centralities[i] = tree.getCentrality(this.numVertices);
 			
@@ -909,113 +841,52 @@ public class TimeEvolvingGraphIncremental {
 		
 		return centralities;
 	}
-
-	
 	
-	public SSSPTree buildSSSPTree(int source, Map<Integer, Set<Integer>> initialGraph) {
-		
-		Map<Integer, Integer> nodeLevelMap = new HashMap<Integer, Integer>();
-		Map<Integer, Set<Integer>> parentsMap = new HashMap<Integer, Set<Integer>>();
-		Map<Integer, Set<Integer>> childrenMap = new HashMap<Integer, Set<Integer>>();
-		
-		int level = 0;
-		
-		Set<Integer> currentLevel = new HashSet<Integer>();
-		Set<Integer> nextLevel = new HashSet<Integer>();
-
-		currentLevel.add(source);
-		nodeLevelMap.put(source, 0);
+	/**
+	 * Centralities of many sources by source and snapshot. The trees of the sources share one copy of the graph
+	 * and are repaired on parallelism threads.
+	 */
+	public double[][] getCentralityDynamicIncremental(int[] sources) {
+		double[][] centralities = new double[sources.length][this.numSnapshots];
 		
-		while (currentLevel.size() > 0) {
+		try (SSSPForest forest = new SSSPForest(this.numVertices, this.deltaIndex, 0, sources, this.parallelism)) {
 			
-			// Add next level
-			for (int vertex: currentLevel) {
-						
-				if (!initialGraph.containsKey(vertex)) continue;
+			for (int s = 0; s < sources.length; s++) {
+				centralities[s][0] = forest.getCentrality(s, this.numVertices);
+			}
+			
+			for (int i = 1; i < this.numSnapshots; i++) {
 				
-				for (Integer child: initialGraph.get(vertex)) {
-					
-					if (!nodeLevelMap.containsKey(child)) {
-						nodeLevelMap.put(child, level + 1);
-						Set<Integer> parents = new HashSet<Integer>();
-						parents.add(vertex);
-						parentsMap.put(child, parents);
-						
-						if (childrenMap.containsKey(vertex)) {
-							Set<Integer> children = childrenMap.get(vertex);
-							children.add(child);
-						} else {
-							Set<Integer> children = new HashSet<Integer>();
-							children.add(child);
-							childrenMap.put(vertex, children);
-						}
-						
-						if (!nextLevel.contains(child)) {
-							nextLevel.add(child);
-						}
-						
-					} else {
-						int bestLevel = nodeLevelMap.get(child);
-						
-						if (!currentLevel.contains(child) && bestLevel == level + 1) {
-							if (parentsMap.containsKey(child)) {
-								Set<Integer> parents = parentsMap.get(child);
-								parents.add(vertex);
-							} else {
-								Set<Integer> parents = new HashSet<Integer>();
-								parents.add(vertex);
-								parentsMap.put(child, parents);
-							}
-							
-							if (childrenMap.containsKey(vertex)) {
-								Set<Integer> children = childrenMap.get(vertex);
-								children.add(child);
-							} else {
-								Set<Integer> children = new HashSet<Integer>();
-								children.add(child);
-								childrenMap.put(vertex, children);
-							}
-							
-							if (!nextLevel.contains(child)) {
-								nextLevel.add(child);
-							}
-							
-						}
-					}
-					
-					
+				forest.applyBatch(this.deltaIndex, i, null, 0);
+				
+				for (int s = 0; s < sources.length; s++) {
+					centralities[s][i] = forest.getCentrality(s, this.numVertices);
 				}
-
 				
 			}
 			
-			// Begin next iteration
-			currentLevel.clear();
-			currentLevel.addAll(nextLevel);
-			nextLevel.clear();
-			
-			level++; 
-			
 		}
 		
-		SSSPTree tree = new SSSPTree(initialGraph, source, nodeLevelMap, parentsMap, childrenMap);
-		
-		return tree;
-		
+		return centralities;
 	}
+
 	
 	
-	private void mergeDelta(Map<Integer, Set<Integer>> initial, Map<Integer, Set<Integer>> delta) {
-		for (int from: delta.keySet()) {
-			for (int to:delta.get(from)) {
-				
-				if (initial.containsKey(from)) {
-					initial.get(from).add(to);
-				} else {
-					Set<Integer> vertices = new HashSet<Integer>();
-					vertices.addAll(delta.get(from));
-					initial.put(from, vertices);
-				}
+	public SSSPTree buildSSSPTree(int source, Map<Integer, Set<Integer>> initialGraph) {
+		return new SSSPTree(this.numVertices, initialGraph, source);
+	}
+	
+	
+	private void mergeDelta(Map<Integer, Set<Integer>> initial, int snapshot) {
+		for (int edge = this.deltaIndex.begin(snapshot); edge < this.deltaIndex.end(snapshot); edge++) {
+			int from = this.deltaIndex.source(edge);
+			
+			if (initial.containsKey(from)) {
+				initial.get(from).add(this.deltaIndex.target(edge));
+			} else {
+				Set<Integer> vertices = new HashSet<Integer>();
+				vertices.add(this.deltaIndex.target(edge));
+				initial.put(from, vertices);
 			}
 		}
 	}
@@ -0,0 +1,112 @@
+package closeness.centrality.io;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive columns of the edges read from an edge list file.
+ * The end time column is only kept for the interval format.
+ */
+class EdgeList {
+
+	private int[] sources;
+	private int[] targets;
+	private int[] startTimes;
+	private int[] endTimes;
+	private int size;
+
+	EdgeList(boolean withEndTimes, int capacity) {
+		capacity = Math.max(capacity, 16);
+		this.sources = new int[capacity];
+		this.targets = new int[capacity];
+		this.startTimes = new int[capacity];
+		this.endTimes = withEndTimes ? new int[capacity] : null;
+		this.size = 0;
+	}
+
+	void add(int source, int target, int startTime, int endTime) {
+		if (this.size == this.sources.length) {
+			this.grow(this.size + 1);
+		}
+		this.sources[this.size] = source;
+		this.targets[this.size] = target;
+		this.startTimes[this.size] = startTime;
+		if (this.endTimes != null) {
+			this.endTimes[this.size] = endTime;
+		}
+		this.size++;
+	}
+
+	void addAll(EdgeList other) {
+		if (this.size + other.size > this.sources.length) {
+			this.grow(this.size + other.size);
+		}
+		System.arraycopy(other.sources, 0, this.sources, this.size, other.size);
+		System.arraycopy(other.targets, 0, this.targets, this.size, other.size);
+		System.arraycopy(other.startTimes, 0, this.startTimes, this.size, other.size);
+		if (this.endTimes != null) {
+			System.arraycopy(other.endTimes, 0, this.endTimes, this.size, other.size);
+		}
+		this.size += other.size;
+	}
+
+	/**
+	 * Replaces every vertex id v by vertexMap[v] and every timestamp t by timestampMap[t], a null map keeps the column.
+	 */
+	void remap(int[] vertexMap, int[] timestampMap) {
+		if (vertexMap != null) {
+			for (int i = 0; i < this.size; i++) {
+				this.sources[i] = vertexMap[this.sources[i]];
+				this.targets[i] = vertexMap[this.targets[i]];
+			}
+		}
+		if (timestampMap != null) {
+			for (int i = 0; i < this.size; i++) {
+				this.startTimes[i] = timestampMap[this.startTimes[i]];
+			}
+			if (this.endTimes != null) {
+				for (int i = 0; i < this.size; i++) {
+					this.endTimes[i] = timestampMap[this.endTimes[i]];
+				}
+			}
+		}
+	}
+
+	private void grow(int minCapacity) {
+		// Grow by half, doubling would briefly need three times the edges on the largest files
+		int capacity = Math.max(minCapacity, this.sources.length + (this.sources.length >> 1));
+		this.sources = Arrays.copyOf(this.sources, capacity);
+		this.targets = Arrays.copyOf(this.targets, capacity);
+		this.startTimes = Arrays.copyOf(this.startTimes, capacity);
+		if (this.endTimes != null) {
+			this.endTimes = Arrays.copyOf(this.endTimes, capacity);
+		}
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	boolean hasEndTimes() {
+		return this.endTimes != null;
+	}
+
+	/**
+	 * The backing arrays, only the first size() entries are edges.
+	 */
+	int[] sources() {
+		return this.sources;
+	}
+
+	int[] targets() {
+		return this.targets;
+	}
+
+	int[] startTimes() {
+		return this.startTimes;
+	}
+
+	int[] endTimes() {
+		return this.endTimes;
+	}
+
+}
@@ -0,0 +1,131 @@
+package closeness.centrality.io;
+
+import java.io.IOException;
+
+/**
+ * Parses comma separated edge lines straight from bytes into an edge list.
+ * Lines are source, target, start time and, for the interval format, end time. Further columns are ignored.
+ * The parser keeps its state between buffers, so a line may span two consecutive buffers.
+ * Raw ids and timestamps may be any long, they are replaced by dense local ids in order of first appearance.
+ */
+class EdgeListParser {
+
+	private final EdgeList edges;
+	private final int columns;
+	private final boolean reverseEdges;
+
+	private final IdDictionary vertexIds;
+	private final IdDictionary timestamps;
+
+	private final long[] fields;
+	private int column;
+	private long value;
+	private boolean negative;
+	private boolean hasDigits;
+
+	private long numLines;
+	private long position;
+
+	EdgeListParser(EdgeList edges, boolean reverseEdges, long position) {
+		this.edges = edges;
+		this.columns = edges.hasEndTimes() ? 4 : 3;
+		this.reverseEdges = reverseEdges;
+		this.vertexIds = new IdDictionary();
+		this.timestamps = new IdDictionary();
+		this.fields = new long[this.columns];
+		this.position = position;
+	}
+
+	EdgeList getEdges() {
+		return this.edges;
+	}
+
+	long getNumLines() {
+		return this.numLines;
+	}
+
+	IdDictionary getVertexIds() {
+		return this.vertexIds;
+	}
+
+	IdDictionary getTimestamps() {
+		return this.timestamps;
+	}
+
+	/**
+	 * Parses the first length bytes of the buffer.
+	 */
+	void parse(byte[] buffer, int length) throws IOException {
+
+		for (int i = 0; i < length; i++) {
+
+			byte b = buffer[i];
+
+			if (b >= '0' && b <= '9') {
+				if (this.value > (Long.MAX_VALUE - 9) / 10) {
+					throw new IOException("Number out of range in edge list at byte " + this.position + ".");
+				}
+				this.value = this.value * 10 + (b - '0');
+				this.hasDigits = true;
+			} else if (b == ',') {
+				this.endField();
+			} else if (b == '\n') {
+				this.endLine();
+			} else if (b == '-' && !this.hasDigits && !this.negative) {
+				this.negative = true;
+			} else if (b != '\r') {
+				throw new IOException("Unexpected character '" + (char) b + "' in edge list at byte " + this.position + ".");
+			}
+
+			this.position++;
+
+		}
+
+	}
+
+	/**
+	 * Completes a last line without a trailing newline.
+	 */
+	void finish() throws IOException {
+		if (this.column > 0 || this.hasDigits || this.negative) {
+			this.endLine();
+		}
+	}
+
+	private void endField() throws IOException {
+		if (!this.hasDigits) {
+			throw new IOException("Empty field in edge list at byte " + this.position + ".");
+		}
+		if (this.column < this.columns) {
+			this.fields[this.column] = this.negative ? -this.value : this.value;
+		}
+		this.column++;
+		this.value = 0;
+		this.negative = false;
+		this.hasDigits = false;
+	}
+
+	private void endLine() throws IOException {
+
+		// Blank line
+		if (this.column == 0 && !this.hasDigits && !this.negative) {
+			return;
+		}
+
+		this.endField();
+		if (this.column < this.columns) {
+			throw new IOException("Expected " + this.columns + " fields in edge list before byte " + this.position + ", found " + this.column + ".");
+		}
+
+		int source = this.vertexIds.getOrAdd(this.reverseEdges ? this.fields[1] : this.fields[0]);
+		int target = this.vertexIds.getOrAdd(this.reverseEdges ? this.fields[0] : this.fields[1]);
+		int startTime = this.timestamps.getOrAdd(this.fields[2]);
+		int endTime = this.columns == 4 ? this.timestamps.getOrAdd(this.fields[3]) : 0;
+		this.edges.add(source, target, startTime, endTime);
+
+		this.numLines++;
+		this.column = 0;
+
+	}
+
+}
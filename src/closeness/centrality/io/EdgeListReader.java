@@ -0,0 +1,392 @@
+package closeness.centrality.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import closeness.centrality.entity.CondensedGraph;
+import closeness.centrality.entity.DeltaIndex;
+import closeness.centrality.entity.IdMapping;
+
+/**
+ * Reads comma separated edge list files into the condensed graph and delta indexes of a time evolving graph.
+ * Vertex ids and timestamps may be any long, they are remapped to their rank among the distinct values of the file.
+ * Normalized files, with ids 0 to n - 1 and no gaps, keep their ids.
+ * Large files are cut into byte ranges at line boundaries and the ranges are parsed concurrently.
+ */
+public class EdgeListReader {
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	// Smallest byte range worth a thread of its own
+	private static final long MIN_CHUNK_SIZE = 16 << 20;
+
+	private static final Logger logger = LoggerFactory.getLogger(EdgeListReader.class);
+
+	/**
+	 * Reads "source,target,timestamp" lines, the graph has one delta index by insertion time.
+	 */
+	public static TegFile readInsertions(String path, boolean reverseEdges) throws IOException {
+		return readInsertions(path, reverseEdges, Runtime.getRuntime().availableProcessors());
+	}
+
+	public static TegFile readInsertions(String path, boolean reverseEdges, int parallelism) throws IOException {
+
+		EdgeListParser[] parsers = parse(path, false, reverseEdges, parallelism);
+
+		long[] vertexIds = remapVertices(parsers);
+		long[] timestamps = remapTimestamps(parsers);
+		IdMapping ids = new IdMapping(isIdentity(vertexIds) ? null : vertexIds, isIdentity(timestamps) ? null : timestamps);
+
+		EdgeList edges = merge(parsers, false);
+		int numEdges = edges.size();
+
+		int numVertices = vertexIds.length;
+		int numSnapshots = timestamps.length;
+
+		CondensedGraph condensedGraph = CondensedGraph.build(numVertices, numSnapshots, numEdges, edges.sources(), edges.targets(), edges.startTimes(), null);
+		checkDuplicates(condensedGraph, ids);
+
+		DeltaIndex deltaIndex = DeltaIndex.build(numVertices, numSnapshots, numEdges, edges.sources(), edges.targets(), edges.startTimes());
+
+		return new TegFile(numVertices, numSnapshots, condensedGraph, ids, deltaIndex);
+
+	}
+
+	/**
+	 * Reads "source,target,startTime,endTime" lines, the graph has two delta indexes by start and by end time.
+	 */
+	public static TegFile readIntervals(String path) throws IOException {
+		return readIntervals(path, Runtime.getRuntime().availableProcessors());
+	}
+
+	public static TegFile readIntervals(String path, int parallelism) throws IOException {
+
+		EdgeListParser[] parsers = parse(path, true, false, parallelism);
+
+		long[] vertexIds = remapVertices(parsers);
+		long[] timestamps = remapTimestamps(parsers);
+		IdMapping ids = new IdMapping(isIdentity(vertexIds) ? null : vertexIds, isIdentity(timestamps) ? null : timestamps);
+
+		EdgeList edges = merge(parsers, true);
+		int numEdges = edges.size();
+
+		int numVertices = vertexIds.length;
+		int numSnapshots = timestamps.length;
+
+		CondensedGraph condensedGraph = CondensedGraph.build(numVertices, numSnapshots, numEdges, edges.sources(), edges.targets(), edges.startTimes(), edges.endTimes());
+		checkDuplicates(condensedGraph, ids);
+
+		DeltaIndex insertionIndex = DeltaIndex.build(numVertices, numSnapshots, numEdges, edges.sources(), edges.targets(), edges.startTimes());
+		DeltaIndex deletionIndex = DeltaIndex.build(numVertices, numSnapshots, numEdges, edges.sources(), edges.targets(), edges.endTimes());
+
+		return new TegFile(numVertices, numSnapshots, condensedGraph, ids, insertionIndex, deletionIndex);
+
+	}
+
+	private static EdgeListParser[] parse(String path, boolean withEndTimes, boolean reverseEdges, int parallelism) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+
+			long[] boundaries = findChunkBoundaries(channel, parallelism);
+			int numChunks = boundaries.length - 1;
+
+			EdgeListParser[] parsers = new EdgeListParser[numChunks];
+
+			if (numChunks == 1) {
+				parsers[0] = parseChunk(channel, 0, boundaries[1], withEndTimes, reverseEdges);
+			} else {
+				ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, numChunks));
+				try {
+					List<ForkJoinTask<EdgeListParser>> tasks = new ArrayList<ForkJoinTask<EdgeListParser>>(numChunks);
+					for (int i = 0; i < numChunks; i++) {
+						long start = boundaries[i];
+						long end = boundaries[i + 1];
+						tasks.add(pool.submit(() -> parseChunk(channel, start, end, withEndTimes, reverseEdges)));
+					}
+					for (int i = 0; i < numChunks; i++) {
+						parsers[i] = tasks.get(i).get();
+					}
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while reading " + path + ".", e);
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof IOException) {
+						throw (IOException) e.getCause();
+					}
+					throw new IOException("Failed to read " + path + ".", e.getCause());
+				} finally {
+					pool.shutdown();
+				}
+			}
+
+			long numLines = 0;
+			for (EdgeListParser parser: parsers) {
+				numLines += parser.getNumLines();
+			}
+			logger.info("Number of edges is {}.", numLines);
+
+			return parsers;
+
+		}
+
+	}
+
+	/**
+	 * Cuts the file into about parallelism byte ranges, each range but the last one ends right after a newline.
+	 */
+	private static long[] findChunkBoundaries(FileChannel channel, int parallelism) throws IOException {
+
+		long size = channel.size();
+		int numChunks = (int) Math.max(1, Math.min(parallelism, size / MIN_CHUNK_SIZE));
+
+		long[] boundaries = new long[numChunks + 1];
+		boundaries[numChunks] = size;
+
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+		for (int i = 1; i < numChunks; i++) {
+			long position = Math.max(size / numChunks * i, boundaries[i - 1]);
+
+			// Move past the end of the line the cut falls in
+			boolean found = false;
+			while (!found && position < size) {
+				buffer.clear();
+				int read = channel.read(buffer, position);
+				if (read <= 0) {
+					break;
+				}
+				for (int j = 0; j < read; j++) {
+					if (buffer.get(j) == '\n') {
+						position += j + 1;
+						found = true;
+						break;
+					}
+				}
+				if (!found) {
+					position += read;
+				}
+			}
+
+			boundaries[i] = Math.min(position, size);
+		}
+
+		return boundaries;
+
+	}
+
+	private static EdgeListParser parseChunk(FileChannel channel, long start, long end, boolean withEndTimes, boolean reverseEdges) throws IOException {
+
+		// Roughly 16 bytes per line, the list grows if needed
+		EdgeList edges = new EdgeList(withEndTimes, (int) Math.min((end - start) / 16, Integer.MAX_VALUE - 8));
+		EdgeListParser parser = new EdgeListParser(edges, reverseEdges, start);
+
+		byte[] bytes = new byte[BUFFER_SIZE];
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		long position = start;
+		while (position < end) {
+			buffer.clear();
+			buffer.limit((int) Math.min(BUFFER_SIZE, end - position));
+			int read = channel.read(buffer, position);
+			if (read == -1) {
+				break;
+			}
+			parser.parse(bytes, read);
+			position += read;
+		}
+		parser.finish();
+
+		return parser;
+
+	}
+
+	/**
+	 * Ranks the raw vertex ids of all chunks and replaces the local ids of each chunk by the ranks.
+	 * Returns the distinct raw ids in ascending order.
+	 */
+	private static long[] remapVertices(EdgeListParser[] parsers) {
+
+		IdDictionary[] dictionaries = new IdDictionary[parsers.length];
+		for (int i = 0; i < parsers.length; i++) {
+			dictionaries[i] = parsers[i].getVertexIds();
+		}
+
+		long[] vertexIds = sortedDistinct(dictionaries, "vertex ids");
+		for (int i = 0; i < parsers.length; i++) {
+			parsers[i].getEdges().remap(toRanks(dictionaries[i], vertexIds), null);
+		}
+
+		logger.info("Number of vertices is {}.", vertexIds.length);
+		if (!isIdentity(vertexIds)) {
+			logger.info("Vertex ids are not normalized, remapped ids {} to {}.", vertexIds[0], vertexIds[vertexIds.length - 1]);
+		}
+
+		return vertexIds;
+
+	}
+
+	/**
+	 * Same as remapVertices for the start and end times, the snapshots are the distinct timestamps in ascending order.
+	 */
+	private static long[] remapTimestamps(EdgeListParser[] parsers) {
+
+		IdDictionary[] dictionaries = new IdDictionary[parsers.length];
+		for (int i = 0; i < parsers.length; i++) {
+			dictionaries[i] = parsers[i].getTimestamps();
+		}
+
+		long[] timestamps = sortedDistinct(dictionaries, "timestamps");
+		for (int i = 0; i < parsers.length; i++) {
+			parsers[i].getEdges().remap(null, toRanks(dictionaries[i], timestamps));
+		}
+
+		logger.info("Number of snapshots is {}.", timestamps.length);
+		if (!isIdentity(timestamps)) {
+			logger.info("Timestamps are not normalized, remapped timestamps {} to {}.", timestamps[0], timestamps[timestamps.length - 1]);
+		}
+
+		return timestamps;
+
+	}
+
+	/**
+	 * Distinct ids of all the chunks in ascending order. The ids of each chunk are sorted and merged into those of
+	 * the chunks before it, so besides the dictionaries only the distinct ids and one chunk are held at a time.
+	 */
+	private static long[] sortedDistinct(IdDictionary[] dictionaries, String name) {
+
+		long[] values = null;
+		for (IdDictionary dictionary: dictionaries) {
+			// Ids are distinct within a chunk
+			long[] chunk = Arrays.copyOf(dictionary.ids(), dictionary.size());
+			Arrays.sort(chunk);
+			values = values == null ? chunk : mergeDistinct(values, chunk, name);
+		}
+		return values;
+
+	}
+
+	/**
+	 * Union of two sorted arrays of distinct values.
+	 */
+	private static long[] mergeDistinct(long[] first, long[] second, String name) {
+
+		// Count first, the union is allocated once at its exact size
+		long count = 0;
+		int i = 0;
+		int j = 0;
+		while (i < first.length && j < second.length) {
+			if (first[i] <= second[j]) {
+				j += first[i] == second[j] ? 1 : 0;
+				i++;
+			} else {
+				j++;
+			}
+			count++;
+		}
+		count += (first.length - i) + (second.length - j);
+		if (count > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Too many distinct " + name + ": " + count + ", at most " + (Integer.MAX_VALUE - 8) + " are supported.");
+		}
+
+		long[] values = new long[(int) count];
+		int size = 0;
+		i = 0;
+		j = 0;
+		while (i < first.length && j < second.length) {
+			if (first[i] <= second[j]) {
+				j += first[i] == second[j] ? 1 : 0;
+				values[size++] = first[i++];
+			} else {
+				values[size++] = second[j++];
+			}
+		}
+		while (i < first.length) {
+			values[size++] = first[i++];
+		}
+		while (j < second.length) {
+			values[size++] = second[j++];
+		}
+		return values;
+
+	}
+
+	/**
+	 * Rank of each local id of the dictionary among the sorted values, null if every local id is its own rank.
+	 */
+	private static int[] toRanks(IdDictionary dictionary, long[] sortedValues) {
+
+		int[] ranks = new int[dictionary.size()];
+		boolean identity = true;
+		for (int i = 0; i < ranks.length; i++) {
+			ranks[i] = Arrays.binarySearch(sortedValues, dictionary.ids()[i]);
+			identity &= ranks[i] == i;
+		}
+		return identity ? null : ranks;
+
+	}
+
+	private static boolean isIdentity(long[] sortedValues) {
+		// Sorted and distinct, so 0 first and n - 1 last means no gaps
+		return sortedValues.length == 0 || (sortedValues[0] == 0 && sortedValues[sortedValues.length - 1] == sortedValues.length - 1);
+	}
+
+	/**
+	 * Concatenates the chunks in file order, each chunk is released once copied.
+	 */
+	private static EdgeList merge(EdgeListParser[] parsers, boolean withEndTimes) {
+
+		if (parsers.length == 1) {
+			return parsers[0].getEdges();
+		}
+
+		long numEdges = 0;
+		for (EdgeListParser parser: parsers) {
+			numEdges += parser.getEdges().size();
+		}
+		if (numEdges > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("Too many edges: " + numEdges + ".");
+		}
+
+		EdgeList edges = new EdgeList(withEndTimes, (int) numEdges);
+		for (int i = 0; i < parsers.length; i++) {
+			edges.addAll(parsers[i].getEdges());
+			parsers[i] = null;
+		}
+		return edges;
+
+	}
+
+	/**
+	 * An edge may appear once, whatever its timestamps.
+	 */
+	private static void checkDuplicates(CondensedGraph graph, IdMapping ids) {
+
+		// Last source seen for each target
+		int[] lastSource = new int[graph.getNumVertices()];
+		Arrays.fill(lastSource, -1);
+
+		for (int source = 0; source < graph.getNumVertices(); source++) {
+			for (int edge = graph.begin(source); edge < graph.end(source); edge++) {
+				int target = graph.target(edge);
+				if (lastSource[target] == source) {
+					logger.error("Duplicate edges found ({}, {}).", ids.getVertexId(source), ids.getVertexId(target));
+					System.exit(1);
+				}
+				lastSource[target] = source;
+			}
+		}
+
+	}
+
+}
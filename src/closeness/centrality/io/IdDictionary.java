@@ -0,0 +1,98 @@
+package closeness.centrality.io;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map from raw long ids to dense int ids, handed out in order of first appearance.
+ */
+class IdDictionary {
+
+	private long[] keys;
+	private int[] values; // Dense id + 1, 0 marks an empty slot
+	private int mask;
+
+	private long[] ids;
+	private int size;
+
+	IdDictionary() {
+		this.keys = new long[64];
+		this.values = new int[64];
+		this.mask = 63;
+		this.ids = new long[32];
+		this.size = 0;
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * The raw ids by dense id, only the first size() entries are used.
+	 */
+	long[] ids() {
+		return this.ids;
+	}
+
+	int getOrAdd(long key) {
+
+		int slot = hash(key) & this.mask;
+		while (this.values[slot] != 0) {
+			if (this.keys[slot] == key) {
+				return this.values[slot] - 1;
+			}
+			slot = (slot + 1) & this.mask;
+		}
+
+		int id = this.size;
+		this.keys[slot] = key;
+		this.values[slot] = id + 1;
+
+		if (id == this.ids.length) {
+			this.ids = Arrays.copyOf(this.ids, id * 2);
+		}
+		this.ids[id] = key;
+		this.size++;
+
+		// Keep the load factor at most one half
+		if (2 * this.size > this.keys.length) {
+			this.rehash();
+		}
+
+		return id;
+
+	}
+
+	private void rehash() {
+
+		long[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+
+		this.keys = new long[oldKeys.length * 2];
+		this.values = new int[oldValues.length * 2];
+		this.mask = this.keys.length - 1;
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] == 0) {
+				continue;
+			}
+			int slot = hash(oldKeys[i]) & this.mask;
+			while (this.values[slot] != 0) {
+				slot = (slot + 1) & this.mask;
+			}
+			this.keys[slot] = oldKeys[i];
+			this.values[slot] = oldValues[i];
+		}
+
+	}
+
+	private static int hash(long key) {
+		// Finalizer of MurmurHash3, spreads sequential ids over the table
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+}
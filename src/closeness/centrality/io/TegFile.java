@@ -0,0 +1,292 @@
+package closeness.centrality.io;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import closeness.centrality.entity.CondensedGraph;
+import closeness.centrality.entity.DeltaIndex;
+import closeness.centrality.entity.IdMapping;
+
+/**
+ * Binary on-disk form of a time evolving graph: the CSR condensed graph followed by its delta indexes.
+ *
+ * All values are little endian ints. The header is the magic number, the format version, the flags,
+ * the number of vertices, snapshots, edges and delta indexes. Then follow the condensed graph offsets,
+ * targets, start times and, if flagged, end times. Each delta index is stored as its number of edges,
+ * its offsets, sources and targets. The raw vertex ids and timestamps, if flagged, come last as little endian
+ * longs, i.e. the low int first.
+ */
+public class TegFile {
+
+	public static final int MAGIC = 0x31474554; // "TEG1"
+	public static final int VERSION = 1;
+	public static final int FLAG_END_TIMES = 1;
+	public static final int FLAG_VERTEX_IDS = 2;
+	public static final int FLAG_TIMESTAMPS = 4;
+
+	private static final int HEADER_INTS = 7;
+
+	// Window of the file mapped at a time, a mapping cannot exceed 2 GB
+	private static final long MAP_WINDOW = 1L << 30;
+
+	private final int numVertices;
+	private final int numSnapshots;
+	private final CondensedGraph condensedGraph;
+	private final IdMapping ids;
+	private final DeltaIndex[] deltaIndexes;
+
+	private static final Logger logger = LoggerFactory.getLogger(TegFile.class);
+
+	public TegFile(int numVertices, int numSnapshots, CondensedGraph condensedGraph, DeltaIndex... deltaIndexes) {
+		this(numVertices, numSnapshots, condensedGraph, IdMapping.IDENTITY, deltaIndexes);
+	}
+
+	public TegFile(int numVertices, int numSnapshots, CondensedGraph condensedGraph, IdMapping ids, DeltaIndex... deltaIndexes) {
+		this.numVertices = numVertices;
+		this.numSnapshots = numSnapshots;
+		this.condensedGraph = condensedGraph;
+		this.ids = ids;
+		this.deltaIndexes = deltaIndexes;
+	}
+
+	public int getNumVertices() {
+		return this.numVertices;
+	}
+
+	public int getNumSnapshots() {
+		return this.numSnapshots;
+	}
+
+	public CondensedGraph getCondensedGraph() {
+		return this.condensedGraph;
+	}
+
+	public IdMapping getIds() {
+		return this.ids;
+	}
+
+	public int getNumDeltaIndexes() {
+		return this.deltaIndexes.length;
+	}
+
+	public DeltaIndex getDeltaIndex(int index) {
+		return this.deltaIndexes[index];
+	}
+
+	public void write(String path) throws IOException {
+
+		logger.debug("+write({})", path);
+
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			IntWriter writer = new IntWriter(channel);
+
+			writer.write(MAGIC);
+			writer.write(VERSION);
+			int flags = 0;
+			if (this.condensedGraph.hasEndTimes()) {
+				flags |= FLAG_END_TIMES;
+			}
+			if (this.ids.hasVertexIds()) {
+				flags |= FLAG_VERTEX_IDS;
+			}
+			if (this.ids.hasTimestamps()) {
+				flags |= FLAG_TIMESTAMPS;
+			}
+			writer.write(flags);
+			writer.write(this.numVertices);
+			writer.write(this.numSnapshots);
+			writer.write(this.condensedGraph.getNumEdges());
+			writer.write(this.deltaIndexes.length);
+
+			writer.write(this.condensedGraph.getOffsets());
+			writer.write(this.condensedGraph.getTargets());
+			writer.write(this.condensedGraph.getStartTimes());
+			if (this.condensedGraph.hasEndTimes()) {
+				writer.write(this.condensedGraph.getEndTimes());
+			}
+
+			for (DeltaIndex deltaIndex: this.deltaIndexes) {
+				writer.write(deltaIndex.getNumEdges());
+				writer.write(deltaIndex.getOffsets());
+				writer.write(deltaIndex.getSources());
+				writer.write(deltaIndex.getTargets());
+			}
+
+			if (this.ids.hasVertexIds()) {
+				writer.write(this.ids.getVertexIds());
+			}
+			if (this.ids.hasTimestamps()) {
+				writer.write(this.ids.getTimestamps());
+			}
+
+			writer.flush();
+
+		}
+
+		logger.debug("-write({})", path);
+
+	}
+
+	/**
+	 * Maps the file and copies each section into its array with bulk reads.
+	 */
+	public static TegFile read(String path) throws IOException {
+
+		logger.debug("+read({})", path);
+
+		try (RandomAccessFile file = new RandomAccessFile(path, "r"); FileChannel channel = file.getChannel()) {
+
+			IntReader reader = new IntReader(channel);
+
+			int[] header = reader.read(HEADER_INTS);
+			if (header[0] != MAGIC) {
+				throw new IOException("Not a TEG file: " + path);
+			}
+			if (header[1] != VERSION) {
+				throw new IOException("Unsupported TEG file version " + header[1] + ": " + path);
+			}
+
+			boolean hasEndTimes = (header[2] & FLAG_END_TIMES) != 0;
+			int numVertices = header[3];
+			int numSnapshots = header[4];
+			int numEdges = header[5];
+			int numDeltaIndexes = header[6];
+
+			int[] offsets = reader.read(numVertices + 1);
+			int[] targets = reader.read(numEdges);
+			int[] startTimes = reader.read(numEdges);
+			int[] endTimes = hasEndTimes ? reader.read(numEdges) : null;
+			CondensedGraph condensedGraph = CondensedGraph.wrap(numVertices, offsets, targets, startTimes, endTimes);
+
+			DeltaIndex[] deltaIndexes = new DeltaIndex[numDeltaIndexes];
+			for (int i = 0; i < numDeltaIndexes; i++) {
+				int numDeltaEdges = reader.read(1)[0];
+				int[] deltaOffsets = reader.read(numSnapshots + 1);
+				int[] deltaSources = reader.read(numDeltaEdges);
+				int[] deltaTargets = reader.read(numDeltaEdges);
+				deltaIndexes[i] = DeltaIndex.wrap(deltaOffsets, deltaSources, deltaTargets);
+			}
+
+			long[] vertexIds = (header[2] & FLAG_VERTEX_IDS) != 0 ? reader.readLongs(numVertices) : null;
+			long[] timestamps = (header[2] & FLAG_TIMESTAMPS) != 0 ? reader.readLongs(numSnapshots) : null;
+
+			logger.debug("-read({})", path);
+
+			return new TegFile(numVertices, numSnapshots, condensedGraph, new IdMapping(vertexIds, timestamps), deltaIndexes);
+
+		}
+
+	}
+
+
+	private static class IntWriter {
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+
+		IntWriter(FileChannel channel) {
+			this.channel = channel;
+		}
+
+		void write(int value) throws IOException {
+			if (this.buffer.remaining() < Integer.BYTES) {
+				this.flush();
+			}
+			this.buffer.putInt(value);
+		}
+
+		void write(int[] values) throws IOException {
+			int written = 0;
+			while (written < values.length) {
+				if (this.buffer.remaining() < Integer.BYTES) {
+					this.flush();
+				}
+				IntBuffer ints = this.buffer.asIntBuffer();
+				int count = Math.min(ints.remaining(), values.length - written);
+				ints.put(values, written, count);
+				this.buffer.position(this.buffer.position() + count * Integer.BYTES);
+				written += count;
+			}
+		}
+
+		void write(long[] values) throws IOException {
+			for (long value: values) {
+				this.write((int) value);
+				this.write((int) (value >>> 32));
+			}
+		}
+
+		void flush() throws IOException {
+			this.buffer.flip();
+			while (this.buffer.hasRemaining()) {
+				this.channel.write(this.buffer);
+			}
+			this.buffer.clear();
+		}
+
+	}
+
+
+	private static class IntReader {
+
+		private final FileChannel channel;
+		private final long size;
+
+		private MappedByteBuffer window;
+		private long windowStart;
+		private long position;
+
+		IntReader(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.size = channel.size();
+			this.position = 0;
+		}
+
+		int[] read(int count) throws IOException {
+
+			if (count < 0 || this.position + (long) count * Integer.BYTES > this.size) {
+				throw new IOException("Truncated TEG file, " + count + " ints expected at byte " + this.position + ".");
+			}
+
+			int[] values = new int[count];
+			int read = 0;
+			while (read < count) {
+				if (this.window == null || this.position - this.windowStart + Integer.BYTES > this.window.limit()) {
+					this.windowStart = this.position;
+					this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, this.windowStart, Math.min(MAP_WINDOW, this.size - this.windowStart));
+					this.window.order(ByteOrder.LITTLE_ENDIAN);
+				}
+				this.window.position((int) (this.position - this.windowStart));
+				IntBuffer ints = this.window.asIntBuffer();
+				int n = Math.min(ints.remaining(), count - read);
+				ints.get(values, read, n);
+				read += n;
+				this.position += (long) n * Integer.BYTES;
+			}
+			return values;
+
+		}
+
+		long[] readLongs(int count) throws IOException {
+			int[] ints = this.read(2 * count);
+			long[] values = new long[count];
+			for (int i = 0; i < count; i++) {
+				values[i] = (ints[2 * i] & 0xffffffffL) | ((long) ints[2 * i + 1] << 32);
+			}
+			return values;
+		}
+
+	}
+
+}
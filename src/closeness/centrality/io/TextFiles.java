@@ -0,0 +1,26 @@
+package closeness.centrality.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class TextFiles {
+
+	/**
+	 * Writes one element per line.
+	 */
+	public static void writeList(List<?> list, String path) {
+		try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8)) {
+			for (Object element: list) {
+				writer.write(String.valueOf(element));
+				writer.newLine();
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+}
@@ -0,0 +1,138 @@
+package closeness.centrality.topk;
+
+import java.util.Arrays;
+
+import closeness.centrality.entity.Frontier;
+
+/**
+ * Scratch arrays of a multi source query over a batch of up to 64 sources, one bit per source.
+ * Each thread owns one workspace and reuses it for all the batches it processes.
+ *
+ * Thresholds are the earliest snapshot from which a source reaches a vertex, stored vertex major so the
+ * thresholds of all sources at a vertex share cache lines. Like in QueryWorkspace, the per vertex
+ * arrays are reset lazily when a vertex is first touched in an epoch.
+ *
+ * The thresholds take batchSize ints per vertex, so the batch is sized to the memory the caller can spare.
+ * The candidates of the next level only take a block per vertex of the next frontier.
+ */
+class MultiSourceWorkspace {
+
+	static final int MAX_BATCH_SIZE = Long.SIZE;
+
+	final int batchSize;
+
+	final int[] thresholds; // Best threshold so far, including the current level
+
+	// Best threshold offered for the next level, block i belongs to the i-th vertex of the next frontier
+	int[] candidates;
+	final int[] candidateBlocks;
+
+	final long[] currentMask; // Sources whose threshold improved at the current level
+	final long[] nextMask; // Sources with a candidate for the next level
+
+	// Sources that reached each vertex and an upper bound of their thresholds there. No edge with a later
+	// timestamp improves these sources, so such edges only need to look at the other sources.
+	final long[] reachedMask;
+	final int[] maxThreshold;
+
+	// Epoch in which each vertex was last touched
+	private final int[] epochs;
+	private int epoch;
+
+	// Per source counts of the vertices improved in the current level, by snapshot, as differences
+	final int[][] levelDifferences;
+	final long[][] totalDistances;
+	final int[][] visitedSize;
+	final double[][] centralities;
+
+	final Frontier current;
+	final Frontier next;
+
+	MultiSourceWorkspace(int numVertices, int numSnapshots, int batchSize) {
+		this.batchSize = batchSize;
+
+		this.thresholds = new int[Math.multiplyExact(numVertices, batchSize)];
+		this.candidates = new int[Math.multiplyExact(Math.min(numVertices, 1024), batchSize)];
+		this.candidateBlocks = new int[numVertices];
+
+		this.currentMask = new long[numVertices];
+		this.nextMask = new long[numVertices];
+
+		this.reachedMask = new long[numVertices];
+		this.maxThreshold = new int[numVertices];
+
+		this.epochs = new int[numVertices];
+		this.epoch = 0;
+
+		this.levelDifferences = new int[batchSize][numSnapshots + 1];
+		this.totalDistances = new long[batchSize][numSnapshots];
+		this.visitedSize = new int[batchSize][numSnapshots];
+		this.centralities = new double[batchSize][numSnapshots];
+
+		this.current = new Frontier();
+		this.next = new Frontier();
+	}
+
+	/**
+	 * Largest batch, at most 64 sources, whose workspace fits in budget bytes, and at least one source.
+	 */
+	static int batchSize(int numVertices, int numSnapshots, long budget) {
+		// Three masks and three ints per vertex, then per source a threshold per vertex and the per snapshot sums
+		long fixed = 36L * numVertices;
+		long perSource = Math.max(4L * numVertices + 24L * numSnapshots, 1);
+		long batchSize = Math.max(budget - fixed, 0) / perSource;
+		return (int) Math.max(1, Math.min(Math.min(batchSize, MAX_BATCH_SIZE), (Integer.MAX_VALUE - 8) / Math.max(numVertices, 1)));
+	}
+
+	boolean fits(int numVertices, int numSnapshots, int batchSize) {
+		return this.epochs.length == numVertices && this.totalDistances[0].length == numSnapshots && this.batchSize == batchSize;
+	}
+
+	void reset() {
+		this.epoch++;
+		if (this.epoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.epochs, 0);
+			this.epoch = 1;
+		}
+
+		for (int i = 0; i < this.batchSize; i++) {
+			Arrays.fill(this.levelDifferences[i], 0);
+			Arrays.fill(this.totalDistances[i], 0);
+			Arrays.fill(this.visitedSize[i], 0);
+		}
+
+		this.current.clear();
+		this.next.clear();
+	}
+
+	/**
+	 * Must be called before the per vertex arrays of the vertex are read in the current epoch.
+	 */
+	void touch(int vertex) {
+		if (this.epochs[vertex] != this.epoch) {
+			this.epochs[vertex] = this.epoch;
+			int base = vertex * this.batchSize;
+			Arrays.fill(this.thresholds, base, base + this.batchSize, Integer.MAX_VALUE);
+			this.currentMask[vertex] = 0;
+			this.nextMask[vertex] = 0;
+			this.reachedMask[vertex] = 0;
+			this.maxThreshold[vertex] = 0;
+		}
+	}
+
+	/**
+	 * Adds the vertex to the next frontier with a block of candidates, none offered yet.
+	 * The candidates array may be replaced by a larger one.
+	 */
+	void addToNext(Frontier next, int vertex) {
+		int block = next.size();
+		int base = block * this.batchSize;
+		if (base + this.batchSize > this.candidates.length) {
+			this.candidates = Arrays.copyOf(this.candidates, Math.min(2 * this.candidates.length, this.thresholds.length));
+		}
+		Arrays.fill(this.candidates, base, base + this.batchSize, Integer.MAX_VALUE);
+		this.candidateBlocks[vertex] = block;
+		next.add(vertex);
+	}
+
+}
@@ -0,0 +1,93 @@
+package closeness.centrality.topk;
+
+import java.util.Arrays;
+
+import closeness.centrality.entity.Frontier;
+
+/**
+ * Scratch arrays of a single source query.
+ * Each thread owns one workspace and reuses it for all the sources it processes.
+ *
+ * The per vertex arrays are reset lazily: reset() only starts a new epoch, and a vertex gets its
+ * initial values the first time it is touched in the epoch. A query thus costs time in the vertices
+ * it reaches rather than in the size of the graph.
+ */
+class QueryWorkspace {
+
+	final int[] discoveredTime;
+	final int[] currentLevel;
+	final int[] nextLevel;
+
+	// Epoch in which each vertex was last touched
+	private final int[] epochs;
+	private int epoch;
+
+	final long[] totalDistances;
+	final int[] visitedSize;
+	final int[] verticesPerTimestamp;
+	final int[] startingPoints;
+	final int[] endingPoints;
+	final boolean[] pruned;
+	final int[] componentSizes;
+	final double[] centralities;
+
+	final Frontier current;
+	final Frontier next;
+
+	QueryWorkspace(int numVertices, int numSnapshots) {
+		this.discoveredTime = new int[numVertices];
+		this.currentLevel = new int[numVertices];
+		this.nextLevel = new int[numVertices];
+
+		this.epochs = new int[numVertices];
+		this.epoch = 0;
+
+		this.totalDistances = new long[numSnapshots];
+		this.visitedSize = new int[numSnapshots];
+		this.verticesPerTimestamp = new int[numSnapshots];
+		this.startingPoints = new int[numSnapshots];
+		this.endingPoints = new int[numSnapshots];
+		this.pruned = new boolean[numSnapshots];
+		this.componentSizes = new int[numSnapshots];
+		this.centralities = new double[numSnapshots];
+
+		this.current = new Frontier();
+		this.next = new Frontier();
+	}
+
+	boolean fits(int numVertices, int numSnapshots) {
+		return this.epochs.length == numVertices && this.totalDistances.length == numSnapshots;
+	}
+
+	void reset() {
+		this.epoch++;
+		if (this.epoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.epochs, 0);
+			this.epoch = 1;
+		}
+
+		// Snapshot arrays are small, they are cleared eagerly
+		Arrays.fill(this.totalDistances, 0);
+		Arrays.fill(this.visitedSize, 0);
+		Arrays.fill(this.verticesPerTimestamp, 0);
+		Arrays.fill(this.startingPoints, 0);
+		Arrays.fill(this.endingPoints, 0);
+		Arrays.fill(this.pruned, false);
+
+		this.current.clear();
+		this.next.clear();
+	}
+
+	/**
+	 * Must be called before the per vertex arrays of the vertex are read in the current epoch.
+	 */
+	void touch(int vertex) {
+		if (this.epochs[vertex] != this.epoch) {
+			this.epochs[vertex] = this.epoch;
+			this.discoveredTime[vertex] = Integer.MAX_VALUE;
+			this.currentLevel[vertex] = Integer.MAX_VALUE;
+			this.nextLevel[vertex] = Integer.MAX_VALUE;
+		}
+	}
+
+}
@@ -0,0 +1,48 @@
+package closeness.centrality.topk;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-snapshot pruning thresholds shared by all the workers of a top k query.
+ * A threshold only ever grows, so a worker may read a stale value but never a too high one.
+ */
+class SnapshotThresholds {
+
+	private final AtomicLongArray bits;
+
+	SnapshotThresholds(int numSnapshots) {
+		this.bits = new AtomicLongArray(numSnapshots);
+		for (int i = 0; i < numSnapshots; i++) {
+			this.bits.set(i, Double.doubleToRawLongBits(0));
+		}
+	}
+
+	SnapshotThresholds(double[] thresholds) {
+		this.bits = new AtomicLongArray(thresholds.length);
+		for (int i = 0; i < thresholds.length; i++) {
+			this.bits.set(i, Double.doubleToRawLongBits(thresholds[i]));
+		}
+	}
+
+	int size() {
+		return this.bits.length();
+	}
+
+	double get(int snapshot) {
+		return Double.longBitsToDouble(this.bits.get(snapshot));
+	}
+
+	/**
+	 * Publishes the k-th best value a worker has seen, lower values are ignored.
+	 */
+	void raise(int snapshot, double value) {
+		long current = this.bits.get(snapshot);
+		while (Double.longBitsToDouble(current) < value) {
+			if (this.bits.compareAndSet(snapshot, current, Double.doubleToRawLongBits(value))) {
+				return;
+			}
+			current = this.bits.get(snapshot);
+		}
+	}
+
+}
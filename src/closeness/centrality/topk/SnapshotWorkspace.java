@@ -0,0 +1,46 @@
+package closeness.centrality.topk;
+
+/**
+ * Scratch arrays of the BFS of one snapshot, a visited bitmap and the BFS queue.
+ * Each thread owns one workspace and reuses it for all the snapshots it processes.
+ *
+ * The queue holds every vertex visited by the BFS, so clear() zeroes only the words of their bits instead of the
+ * whole bitmap.
+ */
+class SnapshotWorkspace {
+
+	private final long[] visited;
+	final int[] queue;
+
+	SnapshotWorkspace(int numVertices) {
+		this.visited = new long[(numVertices + Long.SIZE - 1) / Long.SIZE];
+		this.queue = new int[numVertices];
+	}
+
+	boolean fits(int numVertices) {
+		return this.queue.length == numVertices;
+	}
+
+	/**
+	 * Marks the vertex as visited, false if it already was.
+	 */
+	boolean visit(int vertex) {
+		long bit = 1L << vertex;
+		int word = vertex >>> 6;
+		if ((this.visited[word] & bit) != 0) {
+			return false;
+		}
+		this.visited[word] |= bit;
+		return true;
+	}
+
+	/**
+	 * Clears the bits of the first count vertices of the queue. A word holds no other set bits, it is zeroed whole.
+	 */
+	void clear(int count) {
+		for (int i = 0; i < count; i++) {
+			this.visited[this.queue[i] >>> 6] = 0;
+		}
+	}
+
+}
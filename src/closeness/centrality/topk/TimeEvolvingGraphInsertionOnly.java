@@ -11,26 +11,54 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import closeness.centrality.entity.EdgeWithTimestamp;
-
-public class TimeEvolvingGraphInsertionOnly {
+import closeness.centrality.entity.CondensedGraph;
+import closeness.centrality.entity.DeltaIndex;
+import closeness.centrality.entity.Frontier;
+import closeness.centrality.entity.IdMapping;
+import closeness.centrality.entity.SnapshotComponents;
+import closeness.centrality.entity.SnapshotView;
+import closeness.centrality.io.EdgeListReader;
+import closeness.centrality.io.TegFile;
+
+/**
+ * The parallel queries run on a pool the engine keeps between queries, so that its threads keep their workspaces.
+ * The engine should be closed to release the threads.
+ */
+public class TimeEvolvingGraphInsertionOnly implements AutoCloseable {
 	
 	private int numVertices;
 	private int numSnapshots;
 	
-	private List<Map<Integer, List<Integer>>> snapshotsGraph;
-	private List<List<EdgeWithTimestamp>> condensedGraph;
+	private CondensedGraph condensedGraph;
+	private DeltaIndex deltaIndex;
+	private IdMapping ids = IdMapping.IDENTITY;
+	
+	// Built by the first pruned query
+	private SnapshotComponents components;
+	
+	private int parallelism = Runtime.getRuntime().availableProcessors();
+	
+	// Query scratch arrays of each thread, kept across queries
+	private final ThreadLocal<QueryWorkspace> workspaces = new ThreadLocal<QueryWorkspace>();
+	private final ThreadLocal<MultiSourceWorkspace> multiSourceWorkspaces = new ThreadLocal<MultiSourceWorkspace>();
+	private final ThreadLocal<SnapshotWorkspace> snapshotWorkspaces = new ThreadLocal<SnapshotWorkspace>();
 	
-	private int[][] sccSizes;
+	// Created by the first parallel query, again if the parallelism changes
+	private ForkJoinPool pool;
+	
+	// Bytes the multi source workspaces of all the threads may take together, they set the batch size
+	private long multiSourceMemory = Runtime.getRuntime().maxMemory() / 2;
 	
 	final private Logger logger = LoggerFactory.getLogger(TimeEvolvingGraphInsertionOnly.class);
 	
@@ -42,230 +70,131 @@ public class TimeEvolvingGraphInsertionOnly {
 		return this.numSnapshots;
 	}
 	
+	/**
+	 * Raw vertex ids and timestamps of the loaded file by vertex and snapshot.
+	 */
+	public IdMapping getIds() {
+		return this.ids;
+	}
+	
+	public int getParallelism() {
+		return this.parallelism;
+	}
+	
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive, got " + parallelism + ".");
+		}
+		this.parallelism = parallelism;
+	}
+	
+	public long getMultiSourceMemory() {
+		return this.multiSourceMemory;
+	}
+	
+	public void setMultiSourceMemory(long multiSourceMemory) {
+		if (multiSourceMemory < 1) {
+			throw new IllegalArgumentException("Multi source memory must be positive, got " + multiSourceMemory + ".");
+		}
+		this.multiSourceMemory = multiSourceMemory;
+	}
+	
 	
 	public void constructGraph(String path, boolean buildSnapshotGraph) {
 		this.constructGraph(path, buildSnapshotGraph, false);
 	}
 	
 	
+	/**
+	 * Snapshots are views of the condensed graph, buildSnapshotGraph is kept for existing callers and builds nothing.
+	 */
 	public void constructGraph(String path, boolean buildSnapshotGraph, boolean reverseEdges) {
 
 		logger.debug("+constructGraph({}, buildSnapshotGraph = {}, reverseEdges = {})", path, buildSnapshotGraph, reverseEdges);
 		
-		Set<Integer> vertices = new HashSet<Integer>();
-		Set<Integer> timestamps = new HashSet<Integer>();
-		
-		Map<Integer, Map<Integer, Set<Integer>>> snapshots = null;
-		if (buildSnapshotGraph) {
-			snapshots = new HashMap<Integer, Map<Integer, Set<Integer>>>();
+		try {
+			this.loadGraph(EdgeListReader.readInsertions(path, reverseEdges, this.parallelism));
+		} catch (IOException e) {
+			e.printStackTrace();
 		}
 		
-		Map<Integer, Map<Integer, Integer>> condensed = new HashMap<Integer, Map<Integer, Integer>>() ;
-		
-		try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-		    String line;
-		    String[] parts;
-
-		    int numLines = 0;
-		    
-		    while ((line = br.readLine()) != null) {
-		    	
-		    	numLines++;
-		    	if (numLines % 1000000 == 0) {
-					logger.debug("Reading line {}...", numLines);
-				}
-		    	
-		    	parts = line.split(",");
-		    	
-		    	int source, target;
-		    	
-		    	if (reverseEdges) {
-		    		source = Integer.valueOf(parts[1]);
-			    	target = Integer.valueOf(parts[0]);
-		    	} else {
-			    	source = Integer.valueOf(parts[0]);
-			    	target = Integer.valueOf(parts[1]);
-		    	}
-		    	
-		    	
-		    	int timestamp = Integer.valueOf(parts[2]);
-		    	
-		    	vertices.add(source);
-		    	vertices.add(target);
-		    	timestamps.add(timestamp);
-		    	
-		    	// Update snapshotsGraph
-		    	if (buildSnapshotGraph) {
-		    		if (snapshots.containsKey(timestamp)) {
-			    		Map<Integer, Set<Integer>> snapshot = snapshots.get(timestamp);
-			    		
-			    		if (snapshot.containsKey(source)) {
-			    			if (snapshot.get(source).contains(target)) {
-			    				logger.error("Duplicate edge found ({}, {}, {})", source, target, timestamp);
-			    				System.exit(1);
-			    			} else {
-			    				snapshot.get(source).add(target);
-			    			}
-			    		} else {
-			    			Set<Integer> outgoingVertices = new HashSet<Integer>();
-			    			outgoingVertices.add(target);
-			    			snapshot.put(source, outgoingVertices);
-			    		}
-			    	} else {
-			    		Set<Integer> outgoingVertices = new HashSet<Integer>();
-		    			outgoingVertices.add(target);
-			    		Map<Integer, Set<Integer>> snapshot = new HashMap<Integer, Set<Integer>>();
-		    			snapshot.put(source, outgoingVertices);
-		    			snapshots.put(timestamp, snapshot);
-			    	}
-		    	}
-		    	
-		    	
-		    	// Update condensedGraph
-		    	if (condensed.containsKey(source)) {
-		    		
-		    		Map<Integer, Integer> outgoingEdges = condensed.get(source);
-		    		
-		    		if (outgoingEdges.containsKey(target)) {
-		    			logger.error("Duplicate edges found ({}, {}), with timestamps {}, {}.", source, target, timestamp, outgoingEdges.get(target));
-		    			System.exit(1);
-		    		} else {
-		    			outgoingEdges.put(target, timestamp);
-		    		}
-		    		
-		    	} else {
-		    		Map<Integer, Integer> outgoingEdges = new HashMap<Integer, Integer>();
-		    		outgoingEdges.put(target, timestamp);
-		    		condensed.put(source, outgoingEdges);
-		    	}
-		    	
-		    }
-		    
-
-			int minVertexId = Integer.MAX_VALUE;
-			int maxVertexId = 0;
-			int minTimestamp = Integer.MAX_VALUE;
-			int maxTimestamp = 0;
-			
-			for (int v: vertices) {
-				if (v < minVertexId) {
-					minVertexId = v;
-				}
-				if (v > maxVertexId) {
-					maxVertexId = v;
-				}
-			}
-			
-			for (int t: timestamps) {
-				if (t < minTimestamp) {
-					minTimestamp = t;
-				}
-				if (t > maxTimestamp) {
-					maxTimestamp = t;
-				}
-			}
-			
-			logger.info("Number of edges is {}.", numLines);
-			logger.info("Number of vertices is {}.", vertices.size());
-			logger.info("Number of snapshots is {}.", timestamps.size());
-			
-			if (minVertexId != 0) {
-				logger.error("Min vertex id is {}.", minVertexId);
-			}
-			
-			if (minTimestamp != 0) {
-				logger.error("Min timestamp is {}.", minTimestamp);
-			}
-			
-			if (maxVertexId - minVertexId + 1 != vertices.size()) {
-				logger.error("Vertex id normalization error. Max vertex id is {}.", maxVertexId);
-				System.exit(1);
-			}
-
-			if (maxTimestamp - minTimestamp + 1 != timestamps.size()) {
-				logger.error("Timestamp id normalization error. Max timestamp id is {}.", maxTimestamp);
-				System.exit(1);
-			}
-			
-			this.numVertices = vertices.size();
-			this.numSnapshots = timestamps.size();
+		logger.debug("-constructGraph({}, buildSnapshotGraph = {}, reverseEdges = {})", path, buildSnapshotGraph, reverseEdges);
 
-			// Build array-based snapshot graph
-			if (buildSnapshotGraph) {
-				this.snapshotsGraph = new ArrayList<Map<Integer, List<Integer>>>(snapshots.size());
-				for (int i = 0; i < snapshots.size(); i++) {
-					Map<Integer, List<Integer>> newSnapshot = new HashMap<Integer, List<Integer>>();
-					this.snapshotsGraph.add(newSnapshot);
-				}
-				
-				for (int i = 0; i < snapshots.size(); i++) {
-					Map<Integer, Set<Integer>> oldSnapshot = snapshots.get(i);
-
-					for (int j = i; j < snapshots.size(); j++) {
-						Map<Integer, List<Integer>> newSnapshot = this.snapshotsGraph.get(j);
-
-						for (Integer source: oldSnapshot.keySet()) {
-							Set<Integer> outgoingVerticesSet = oldSnapshot.get(source);
-							
-							List<Integer> outgoingVerticesList;
-							if (newSnapshot.containsKey(source)) {
-								outgoingVerticesList = newSnapshot.get(source);
-							} else {
-								outgoingVerticesList = new ArrayList<Integer>(outgoingVerticesSet.size());
-								newSnapshot.put(source, outgoingVerticesList);
-							}
-							
-							outgoingVerticesList.addAll(outgoingVerticesSet);
-						}
-						
-					}
-					
-				}
-			}
-			
-			// Build array-based condensed graph
-			this.condensedGraph = new ArrayList<List<EdgeWithTimestamp>>(this.numVertices);
-			for (int i = 0; i < this.numVertices; i++) {
-				if (!condensed.containsKey(i)) {
-					this.condensedGraph.add(new ArrayList<EdgeWithTimestamp>());
-					continue;
-				}
-				
-				Map<Integer, Integer> outgoingEdgesMap = condensed.get(i);
-				List<EdgeWithTimestamp> outgoingEdgesList = new ArrayList<EdgeWithTimestamp>(outgoingEdgesMap.size());
-				for (Integer target: outgoingEdgesMap.keySet()) {
-					int timestamp = outgoingEdgesMap.get(target);
-					outgoingEdgesList.add(new EdgeWithTimestamp(target, timestamp));
-				}
-				
-				Collections.sort(outgoingEdgesList);
-				this.condensedGraph.add(outgoingEdgesList);
-			}
-			
-		} catch (FileNotFoundException e) {
+	}
+	
+	public void constructGraphFromBinary(String path, boolean buildSnapshotGraph) {
+		
+		logger.debug("+constructGraphFromBinary({}, buildSnapshotGraph = {})", path, buildSnapshotGraph);
+		
+		try {
+			this.loadGraph(TegFile.read(path));
+		} catch (IOException e) {
 			e.printStackTrace();
+		}
+		
+		logger.debug("-constructGraphFromBinary({}, buildSnapshotGraph = {})", path, buildSnapshotGraph);
+		
+	}
+	
+	private void loadGraph(TegFile file) {
+		
+		if (file.getNumDeltaIndexes() != 1) {
+			logger.error("Expected 1 delta index, found {}.", file.getNumDeltaIndexes());
+			System.exit(1);
+		}
+		
+		this.numVertices = file.getNumVertices();
+		this.numSnapshots = file.getNumSnapshots();
+		this.condensedGraph = file.getCondensedGraph();
+		this.ids = file.getIds();
+		this.deltaIndex = file.getDeltaIndex(0);
+		
+	}
+	
+	public void writeBinaryGraph(String path) {
+		
+		logger.debug("+writeBinaryGraph({})", path);
+		
+		try {
+			new TegFile(this.numVertices, this.numSnapshots, this.condensedGraph, this.ids, this.deltaIndex).write(path);
 		} catch (IOException e) {
 			e.printStackTrace();
-		} 
+		}
+		
+		logger.debug("-writeBinaryGraph({})", path);
 		
-		logger.debug("-constructGraph({}, buildSnapshotGraph = {}, reverseEdges = {})", path, buildSnapshotGraph, reverseEdges);
-
 	}
 	
+	/**
+	 * One BFS per snapshot, the snapshots are independent and run on {@link #parallelism} threads.
+	 */
 	public double[] getCentralitySnapshotBased(int source, boolean useCondensedGraph) {
 		
 //		long start = System.currentTimeMillis();
 //		this.logger.info("+getCentralitySnapshotBased({}, useCondensedGraph = {})", source, useCondensedGraph);
 		
 		double[] centralities = new double[this.numSnapshots];
+		AtomicInteger nextSnapshot = new AtomicInteger(0);
 		
-		for (int i = 0; i < this.numSnapshots; i++) {
-			if (useCondensedGraph) {
-				centralities[i] = this.getSnapshotCentralityWithCG(source, i);
-			} else {
-				centralities[i] = this.getSnapshotCentralityWithSG(source, i);
+		Runnable worker = () -> {
+			
+			SnapshotWorkspace workspace = this.getSnapshotWorkspace();
+			
+			int i;
+			while ((i = nextSnapshot.getAndIncrement()) < this.numSnapshots) {
+				if (useCondensedGraph) {
+					centralities[i] = this.getSnapshotCentralityWithCG(source, i, workspace);
+				} else {
+					centralities[i] = this.getSnapshotCentralityWithSG(source, i, workspace);
+				}
 			}
 			
+		};
+		
+		if (this.parallelism == 1 || this.numSnapshots == 1) {
+			worker.run();
+		} else {
+			this.runWorkers(worker);
 		}
 		
 //		long end = System.currentTimeMillis();
@@ -278,76 +207,94 @@ public class TimeEvolvingGraphInsertionOnly {
 	
 	
 	public double[] getCentralityRangeBased(int source) {
+		return this.getCentralityRangeBased(source, this.getWorkspace()).clone();
+	}
+	
+	/**
+	 * The workspace of the calling thread, the returned centralities of the workspace overloads live in it.
+	 */
+	private QueryWorkspace getWorkspace() {
+		QueryWorkspace workspace = this.workspaces.get();
+		if (workspace == null || !workspace.fits(this.numVertices, this.numSnapshots)) {
+			workspace = new QueryWorkspace(this.numVertices, this.numSnapshots);
+			this.workspaces.set(workspace);
+		}
+		return workspace;
+	}
+
+	private double[] getCentralityRangeBased(int source, QueryWorkspace workspace) {
 		
 //		long start = System.currentTimeMillis();
 //		this.logger.info("+getCentralityRangeBased({})", source);
 		
-		int[] sccSize = new int[this.numSnapshots]; // Calculate scc size
+		workspace.reset();
 		
-		double[] centralities = new double[this.numSnapshots];
-		Arrays.fill(centralities, 0);
+		int[] sccSize = workspace.visitedSize; // Calculate scc size
 		
-		// Values default to be 0
-		int[] totalDistances = new int[this.numSnapshots];
+		double[] centralities = workspace.centralities;
 		
-		int[] discoveredTime = new int[this.numVertices];
-		Arrays.fill(discoveredTime, Integer.MAX_VALUE);
+		long[] totalDistances = workspace.totalDistances;
+		int[] discoveredTime = workspace.discoveredTime;
 		
 		int level = 0;
 		
-		int[] currentLevel = new int[this.numVertices];
-		Arrays.fill(currentLevel, Integer.MAX_VALUE);
-		int[] nextLevel = new int[this.numVertices];
-		Arrays.fill(nextLevel, Integer.MAX_VALUE);
-
+		int[] currentLevel = workspace.currentLevel;
+		int[] nextLevel = workspace.nextLevel;
+		
+		workspace.touch(source);
 		currentLevel[source] = 0;
 		
-		int[] verticesPerTimestamp = new int[this.numSnapshots];
-
-		boolean hasNext = true;
-				
-		while (hasNext) {
+		int[] verticesPerTimestamp = workspace.verticesPerTimestamp;
+		
+		// Only the vertices of the current level are visited
+		Frontier current = workspace.current;
+		Frontier next = workspace.next;
+		current.add(source);
+		
+		while (!current.isEmpty()) {
 			
 			Arrays.fill(verticesPerTimestamp, 0);
 			
-			for (int vertex = 0; vertex < this.numVertices; vertex++) {
+			for (int index = 0; index < current.size(); index++) {
+				
+				int vertex = current.get(index);
 				
-				if (currentLevel[vertex] != Integer.MAX_VALUE) {
+				// Newly discovered vertex, update distance at the end
+				if (discoveredTime[vertex] == Integer.MAX_VALUE) {
+					verticesPerTimestamp[currentLevel[vertex]]++;
+				}
+				// Existing vertex, update distance separately
+				else {
 					
-					// Newly discovered vertex, update distance at the end
-					if (discoveredTime[vertex] == Integer.MAX_VALUE) {
-						verticesPerTimestamp[currentLevel[vertex]]++;
-					}
-					// Existing vertex, update distance separately
-					else {
-						
-						for (int time = currentLevel[vertex]; time < discoveredTime[vertex]; time++) {
-							totalDistances[time] += level;
-							sccSize[time]++; // Calculate scc size
-						}
-						
+					for (int time = currentLevel[vertex]; time < discoveredTime[vertex]; time++) {
+						totalDistances[time] += level;
+						sccSize[time]++; // Calculate scc size
 					}
 					
-					// Update discovered time
-					discoveredTime[vertex] = currentLevel[vertex];
+				}
+				
+				// Update discovered time
+				discoveredTime[vertex] = currentLevel[vertex];
+				
+				//Add next level
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
 					
-					//Add next level
-					for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
-						
-						int neighbor = edge.getTarget();
-						int neighborDiscoverTime = Math.max(edge.getTimestamp(), currentLevel[vertex]);
+					int neighbor = this.condensedGraph.target(edge);
+					int neighborDiscoverTime = Math.max(this.condensedGraph.timestamp(edge), currentLevel[vertex]);
+					workspace.touch(neighbor);
+					
+					if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
 						
-						if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
-							
-							if (neighborDiscoverTime < nextLevel[neighbor]) {
-								nextLevel[neighbor] = neighborDiscoverTime;
+						if (neighborDiscoverTime < nextLevel[neighbor]) {
+							if (nextLevel[neighbor] == Integer.MAX_VALUE) {
+								next.add(neighbor);
 							}
-							
+							nextLevel[neighbor] = neighborDiscoverTime;
 						}
 						
-						
 					}
 					
+					
 				}
 				
 			}
@@ -357,7 +304,7 @@ public class TimeEvolvingGraphInsertionOnly {
 			for (int i = 0; i < this.numSnapshots; i++) {
 								
 				for (int j = i; j < this.numSnapshots; j++) {
-					totalDistances[j] += level * verticesPerTimestamp[i];
+					totalDistances[j] += (long) level * verticesPerTimestamp[i];
 					sccSize[j] += verticesPerTimestamp[i];
 				}
 
@@ -365,15 +312,19 @@ public class TimeEvolvingGraphInsertionOnly {
 
 			
 			// Begin next iteration
-			hasNext = false;
-			for (int i = 0; i < this.numVertices; i++) {
-				currentLevel[i] = nextLevel[i];
-				if (nextLevel[i] != Integer.MAX_VALUE) {
-					hasNext = true;
-					nextLevel[i] = Integer.MAX_VALUE;
-				}
-				
+			for (int i = 0; i < current.size(); i++) {
+				currentLevel[current.get(i)] = Integer.MAX_VALUE;
 			}
+			for (int i = 0; i < next.size(); i++) {
+				int vertex = next.get(i);
+				currentLevel[vertex] = nextLevel[vertex];
+				nextLevel[vertex] = Integer.MAX_VALUE;
+			}
+			
+			Frontier swap = current;
+			current = next;
+			next = swap;
+			next.clear();
 			
 			level++;
 			
@@ -410,7 +361,7 @@ public class TimeEvolvingGraphInsertionOnly {
 		Arrays.fill(centralities, 0);
 		
 		// Values default to be 0
-		int[] totalDistances = new int[this.numSnapshots];
+		long[] totalDistances = new long[this.numSnapshots];
 		
 		int[] discoveredTime = new int[this.numVertices];
 		Arrays.fill(discoveredTime, Integer.MAX_VALUE);
@@ -449,10 +400,10 @@ public class TimeEvolvingGraphInsertionOnly {
 				discoveredTime[vertex] = currentTime;
 				
 				//Add next level
-				for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
 					
-					int neighbor = edge.getTarget();
-					int neighborDiscoverTime = Math.max(edge.getTimestamp(), currentTime);
+					int neighbor = this.condensedGraph.target(edge);
+					int neighborDiscoverTime = Math.max(this.condensedGraph.timestamp(edge), currentTime);
 					
 					if (neighborDiscoverTime < discoveredTime[neighbor] && (!currentLevel.containsKey(neighbor) || neighborDiscoverTime < currentLevel.get(neighbor))) {
 						
@@ -473,14 +424,14 @@ public class TimeEvolvingGraphInsertionOnly {
 			int localSummary = verticesPerTimestamp[0];
 			int positiveCount = startingPoints[0] - endingPoints[0];
 			
-			totalDistances[0] += level * (localSummary + positiveCount);
+			totalDistances[0] += (long) level * (localSummary + positiveCount);
 			sccSize[0] += (localSummary + positiveCount);
 				
 			for (int i = 1; i < this.numSnapshots; i++) {
 				localSummary += verticesPerTimestamp[i];
 				positiveCount += startingPoints[i] - endingPoints[i];
 
-				totalDistances[i] += level * (localSummary + positiveCount);
+				totalDistances[i] += (long) level * (localSummary + positiveCount);
 				sccSize[i] += (localSummary + positiveCount);
 			}
 			
@@ -533,52 +484,56 @@ public class TimeEvolvingGraphInsertionOnly {
 		int[] startingPoints = new int[this.numSnapshots];
 		int[] endingPoints = new int[this.numSnapshots];
 		
-		boolean hasNext = true;
-				
-		while (hasNext) {
+		// Only the vertices of the current level are visited
+		Frontier current = new Frontier();
+		Frontier next = new Frontier();
+		current.add(source);
+		
+		while (!current.isEmpty()) {
 			
 			Arrays.fill(verticesPerTimestamp, 0);
 			Arrays.fill(startingPoints, 0);
 			Arrays.fill(endingPoints, 0);
 			
-			for (int vertex = 0; vertex < this.numVertices; vertex++) {
+			for (int index = 0; index < current.size(); index++) {
 				
-				if (currentLevel[vertex] != Integer.MAX_VALUE) {
+				int vertex = current.get(index);
 
-					totalLabels++;
+				totalLabels++;
 
-					// Newly discovered vertex, update distance at the end
-					if (discoveredTime[vertex] == Integer.MAX_VALUE) {
-						verticesPerTimestamp[currentLevel[vertex]]++;
-					}
-					// Existing vertex, update distance separately
-					else {
-						
-						startingPoints[currentLevel[vertex]]++;
-						endingPoints[discoveredTime[vertex]]++;
-						
-					}
+				// Newly discovered vertex, update distance at the end
+				if (discoveredTime[vertex] == Integer.MAX_VALUE) {
+					verticesPerTimestamp[currentLevel[vertex]]++;
+				}
+				// Existing vertex, update distance separately
+				else {
 					
-					// Update discovered time
-					discoveredTime[vertex] = currentLevel[vertex];
+					startingPoints[currentLevel[vertex]]++;
+					endingPoints[discoveredTime[vertex]]++;
 					
-					//Add next level
-					for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
-						
-						int neighbor = edge.getTarget();
-						int neighborDiscoverTime = Math.max(edge.getTimestamp(), currentLevel[vertex]);
+				}
+				
+				// Update discovered time
+				discoveredTime[vertex] = currentLevel[vertex];
+				
+				//Add next level
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
+					
+					int neighbor = this.condensedGraph.target(edge);
+					int neighborDiscoverTime = Math.max(this.condensedGraph.timestamp(edge), currentLevel[vertex]);
+					
+					if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
 						
-						if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
-							
-							if (neighborDiscoverTime < nextLevel[neighbor]) {
-								nextLevel[neighbor] = neighborDiscoverTime;
+						if (neighborDiscoverTime < nextLevel[neighbor]) {
+							if (nextLevel[neighbor] == Integer.MAX_VALUE) {
+								next.add(neighbor);
 							}
-							
+							nextLevel[neighbor] = neighborDiscoverTime;
 						}
 						
-						
 					}
 					
+					
 				}
 				
 			}
@@ -598,16 +553,20 @@ public class TimeEvolvingGraphInsertionOnly {
 			}
 			
 			// Begin next iteration
-			hasNext = false;
-			for (int i = 0; i < this.numVertices; i++) {
-				currentLevel[i] = nextLevel[i];
-				if (nextLevel[i] != Integer.MAX_VALUE) {
-					hasNext = true;
-					nextLevel[i] = Integer.MAX_VALUE;
-				}
-				
+			for (int i = 0; i < current.size(); i++) {
+				currentLevel[current.get(i)] = Integer.MAX_VALUE;
+			}
+			for (int i = 0; i < next.size(); i++) {
+				int vertex = next.get(i);
+				currentLevel[vertex] = nextLevel[vertex];
+				nextLevel[vertex] = Integer.MAX_VALUE;
 			}
 			
+			Frontier swap = current;
+			current = next;
+			next = swap;
+			next.clear();
+			
 		}
 		
 		
@@ -622,78 +581,84 @@ public class TimeEvolvingGraphInsertionOnly {
 	}
 	
 	public double[] getCentralityRangeBufferUpdate(int source) {
+		return this.getCentralityRangeBufferUpdate(source, this.getWorkspace()).clone();
+	}
+	
+	private double[] getCentralityRangeBufferUpdate(int source, QueryWorkspace workspace) {
 		
 //		long start = System.currentTimeMillis();
 //		this.logger.info("+getCentralityRangeBufferUpdate({})", source);
 		
-		int[] sccSize = new int[this.numSnapshots]; // Calculate scc size
+		workspace.reset();
 		
-		double[] centralities = new double[this.numSnapshots];
-		Arrays.fill(centralities, 0);
+		int[] sccSize = workspace.visitedSize; // Calculate scc size
 		
-		// Values default to be 0
-		int[] totalDistances = new int[this.numSnapshots];
+		double[] centralities = workspace.centralities;
 		
-		int[] discoveredTime = new int[this.numVertices];
-		Arrays.fill(discoveredTime, Integer.MAX_VALUE);
+		long[] totalDistances = workspace.totalDistances;
+		int[] discoveredTime = workspace.discoveredTime;
 		
 		int level = 0;
 		
-		int[] currentLevel = new int[this.numVertices];
-		Arrays.fill(currentLevel, Integer.MAX_VALUE);
-		int[] nextLevel = new int[this.numVertices];
-		Arrays.fill(nextLevel, Integer.MAX_VALUE);
+		int[] currentLevel = workspace.currentLevel;
+		int[] nextLevel = workspace.nextLevel;
 
+		workspace.touch(source);
 		currentLevel[source] = 0;
 		
-		int[] verticesPerTimestamp = new int[this.numSnapshots];
-		int[] startingPoints = new int[this.numSnapshots];
-		int[] endingPoints = new int[this.numSnapshots];
+		int[] verticesPerTimestamp = workspace.verticesPerTimestamp;
+		int[] startingPoints = workspace.startingPoints;
+		int[] endingPoints = workspace.endingPoints;
 		
-		boolean hasNext = true;
-				
-		while (hasNext) {
+		// Only the vertices of the current level are visited
+		Frontier current = workspace.current;
+		Frontier next = workspace.next;
+		current.add(source);
+		
+		while (!current.isEmpty()) {
 			
 			Arrays.fill(verticesPerTimestamp, 0);
 			Arrays.fill(startingPoints, 0);
 			Arrays.fill(endingPoints, 0);
 			
-			for (int vertex = 0; vertex < this.numVertices; vertex++) {
+			for (int index = 0; index < current.size(); index++) {
 				
-				if (currentLevel[vertex] != Integer.MAX_VALUE) {
+				int vertex = current.get(index);
 
-					// Newly discovered vertex, update distance at the end
-					if (discoveredTime[vertex] == Integer.MAX_VALUE) {
-						verticesPerTimestamp[currentLevel[vertex]]++;
-					}
-					// Existing vertex, update distance separately
-					else {
-						
-						startingPoints[currentLevel[vertex]]++;
-						endingPoints[discoveredTime[vertex]]++;
-						
-					}
+				// Newly discovered vertex, update distance at the end
+				if (discoveredTime[vertex] == Integer.MAX_VALUE) {
+					verticesPerTimestamp[currentLevel[vertex]]++;
+				}
+				// Existing vertex, update distance separately
+				else {
 					
-					// Update discovered time
-					discoveredTime[vertex] = currentLevel[vertex];
+					startingPoints[currentLevel[vertex]]++;
+					endingPoints[discoveredTime[vertex]]++;
 					
-					//Add next level
-					for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
-						
-						int neighbor = edge.getTarget();
-						int neighborDiscoverTime = Math.max(edge.getTimestamp(), currentLevel[vertex]);
+				}
+				
+				// Update discovered time
+				discoveredTime[vertex] = currentLevel[vertex];
+				
+				//Add next level
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
+					
+					int neighbor = this.condensedGraph.target(edge);
+					int neighborDiscoverTime = Math.max(this.condensedGraph.timestamp(edge), currentLevel[vertex]);
+					workspace.touch(neighbor);
+					
+					if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
 						
-						if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
-							
-							if (neighborDiscoverTime < nextLevel[neighbor]) {
-								nextLevel[neighbor] = neighborDiscoverTime;
+						if (neighborDiscoverTime < nextLevel[neighbor]) {
+							if (nextLevel[neighbor] == Integer.MAX_VALUE) {
+								next.add(neighbor);
 							}
-							
+							nextLevel[neighbor] = neighborDiscoverTime;
 						}
 						
-						
 					}
 					
+					
 				}
 				
 			}
@@ -703,28 +668,32 @@ public class TimeEvolvingGraphInsertionOnly {
 			int localSummary = verticesPerTimestamp[0];
 			int positiveCount = startingPoints[0] - endingPoints[0];
 			
-			totalDistances[0] += level * (localSummary + positiveCount);
+			totalDistances[0] += (long) level * (localSummary + positiveCount);
 			sccSize[0] += (localSummary + positiveCount);
 				
 			for (int i = 1; i < this.numSnapshots; i++) {
 				localSummary += verticesPerTimestamp[i];
 				positiveCount += startingPoints[i] - endingPoints[i];
 
-				totalDistances[i] += level * (localSummary + positiveCount);
+				totalDistances[i] += (long) level * (localSummary + positiveCount);
 				sccSize[i] += (localSummary + positiveCount);
 			}
 			
 			
 			// Begin next iteration
-			hasNext = false;
-			for (int i = 0; i < this.numVertices; i++) {
-				currentLevel[i] = nextLevel[i];
-				if (nextLevel[i] != Integer.MAX_VALUE) {
-					hasNext = true;
-					nextLevel[i] = Integer.MAX_VALUE;
-				}
-				
+			for (int i = 0; i < current.size(); i++) {
+				currentLevel[current.get(i)] = Integer.MAX_VALUE;
 			}
+			for (int i = 0; i < next.size(); i++) {
+				int vertex = next.get(i);
+				currentLevel[vertex] = nextLevel[vertex];
+				nextLevel[vertex] = Integer.MAX_VALUE;
+			}
+			
+			Frontier swap = current;
+			current = next;
+			next = swap;
+			next.clear();
 			
 			level++;
 			
@@ -751,57 +720,257 @@ public class TimeEvolvingGraphInsertionOnly {
 
 	
 	
-	public List<List<VertexCentrality>> getTopKBruteForce(int k, int maxNumber) {
-		
-		long start = System.currentTimeMillis();
-		this.logger.info("+getTopKBruteForce()");
-		
-		List<List<VertexCentrality>> allCentrality = new ArrayList<List<VertexCentrality>>(this.numSnapshots);
-		for (int i = 0; i < this.numSnapshots; i++) {
-			List<VertexCentrality> centralityPerSnapshot = new ArrayList<VertexCentrality>(this.numVertices);
-			allCentrality.add(centralityPerSnapshot);
+	/**
+	 * Centralities of several sources, equal to getCentralityRangeBufferUpdate of each source.
+	 * Sources are processed in batches of up to 64 that share their scans of the condensed graph, as large as
+	 * the multi source memory allows.
+	 */
+	public double[][] getCentralityMultiSource(int[] sources) {
+		
+		MultiSourceWorkspace workspace = this.getMultiSourceWorkspace(this.getMultiSourceBatchSize(1));
+		int batchSize = workspace.batchSize;
+		double[][] centralities = new double[sources.length][];
+		
+		for (int offset = 0; offset < sources.length; offset += batchSize) {
+			int count = Math.min(batchSize, sources.length - offset);
+			this.getCentralityMultiSource(sources, offset, count, workspace);
+			for (int i = 0; i < count; i++) {
+				centralities[offset + i] = workspace.centralities[i].clone();
+			}
 		}
 		
-		List<List<Double>> currentTopKs = new ArrayList<List<Double>>(this.numSnapshots);
+		return centralities;
 		
-		for (int i = 0; i < this.numSnapshots; i++) {
-			List<Double> topK = new ArrayList<Double>(k);
-			currentTopKs.add(topK);
+	}
+	
+	private SnapshotWorkspace getSnapshotWorkspace() {
+		SnapshotWorkspace workspace = this.snapshotWorkspaces.get();
+		if (workspace == null || !workspace.fits(this.numVertices)) {
+			workspace = new SnapshotWorkspace(this.numVertices);
+			this.snapshotWorkspaces.set(workspace);
+		}
+		return workspace;
+	}
+	
+	/**
+	 * Batch size of numWorkers threads sharing the multi source memory.
+	 */
+	private int getMultiSourceBatchSize(int numWorkers) {
+		return MultiSourceWorkspace.batchSize(this.numVertices, this.numSnapshots, this.multiSourceMemory / numWorkers);
+	}
+	
+	private MultiSourceWorkspace getMultiSourceWorkspace(int batchSize) {
+		MultiSourceWorkspace workspace = this.multiSourceWorkspaces.get();
+		if (workspace == null || !workspace.fits(this.numVertices, this.numSnapshots, batchSize)) {
+			// Drop the old one first, two workspaces may not fit together
+			this.multiSourceWorkspaces.remove();
+			workspace = new MultiSourceWorkspace(this.numVertices, this.numSnapshots, batchSize);
+			this.multiSourceWorkspaces.set(workspace);
 		}
+		return workspace;
+	}
+	
+	/**
+	 * Multi source BFS of sources[offset] to sources[offset + count - 1], bit i of the masks is the i-th source.
+	 * Each level scans the edges of a vertex once for all the sources whose threshold improved there.
+	 * The centralities are left in the workspace.
+	 */
+	private void getCentralityMultiSource(int[] sources, int offset, int count, MultiSourceWorkspace workspace) {
+		
+		workspace.reset();
+		
+		int batchSize = workspace.batchSize;
+		int[] thresholds = workspace.thresholds;
+		int[] candidates = workspace.candidates;
+		int[] candidateBlocks = workspace.candidateBlocks;
+		long[] currentMask = workspace.currentMask;
+		long[] nextMask = workspace.nextMask;
+		long[] reachedMask = workspace.reachedMask;
+		int[] maxThreshold = workspace.maxThreshold;
+		int[][] levelDifferences = workspace.levelDifferences;
+		
+		Frontier current = workspace.current;
+		Frontier next = workspace.next;
+		
+		// Level 0, each source reaches itself in every snapshot
+		long activeSources = 0;
+		for (int i = 0; i < count; i++) {
+			int source = sources[offset + i];
+			workspace.touch(source);
+			if (currentMask[source] == 0) {
+				current.add(source);
+			}
+			currentMask[source] |= 1L << i;
+			reachedMask[source] |= 1L << i;
+			thresholds[source * batchSize + i] = 0;
+			levelDifferences[i][0]++;
+			levelDifferences[i][this.numSnapshots]--;
+			activeSources |= 1L << i;
+		}
+		
+		int level = 0;
 		
-		long previous = start;
-		for (int i = 0; i < this.numVertices && i < maxNumber; i++) {
+		while (!current.isEmpty()) {
+			
+			this.addLevelDistances(workspace, activeSources, level);
 			
-			if (i % 1000 == 0 && i > 0) {
-				long end = System.currentTimeMillis();
-				this.logger.debug("Processing vertex {}: {} seconds.", i, (end-previous)*1.0/1000);
-				previous = end;
+			for (int index = 0; index < current.size(); index++) {
 				
+				int vertex = current.get(index);
+				int vertexBase = vertex * batchSize;
+				long mask = currentMask[vertex];
+				
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
+					
+					int neighbor = this.condensedGraph.target(edge);
+					int timestamp = this.condensedGraph.timestamp(edge);
+					workspace.touch(neighbor);
+					int neighborBase = neighbor * batchSize;
+					
+					long bits = mask;
+					if (timestamp >= maxThreshold[neighbor]) {
+						bits &= ~reachedMask[neighbor];
+					}
+					
+					for (; bits != 0; bits &= bits - 1) {
+						int i = Long.numberOfTrailingZeros(bits);
+						int neighborDiscoverTime = Math.max(timestamp, thresholds[vertexBase + i]);
+						
+						if (neighborDiscoverTime >= thresholds[neighborBase + i]) {
+							continue;
+						}
+						if (nextMask[neighbor] == 0) {
+							workspace.addToNext(next, neighbor);
+							candidates = workspace.candidates;
+						}
+						int candidate = candidateBlocks[neighbor] * batchSize + i;
+						if (neighborDiscoverTime < candidates[candidate]) {
+							nextMask[neighbor] |= 1L << i;
+							candidates[candidate] = neighborDiscoverTime;
+						}
+					}
+					
+				}
+				
+			}
+			
+			// Begin next iteration, the vertices improve over the snapshots from their candidate to their old threshold
+			for (int i = 0; i < current.size(); i++) {
+				currentMask[current.get(i)] = 0;
 			}
+			activeSources = 0;
+			for (int index = 0; index < next.size(); index++) {
+				int vertex = next.get(index);
+				int vertexBase = vertex * batchSize;
+				int candidateBase = index * batchSize;
+				long mask = nextMask[vertex];
+				for (long bits = mask; bits != 0; bits &= bits - 1) {
+					int i = Long.numberOfTrailingZeros(bits);
+					int oldThreshold = thresholds[vertexBase + i];
+					int newThreshold = candidates[candidateBase + i];
+					levelDifferences[i][newThreshold]++;
+					levelDifferences[i][oldThreshold == Integer.MAX_VALUE ? this.numSnapshots : oldThreshold]--;
+					thresholds[vertexBase + i] = newThreshold;
+					maxThreshold[vertex] = Math.max(maxThreshold[vertex], newThreshold);
+				}
+				currentMask[vertex] = mask;
+				nextMask[vertex] = 0;
+				reachedMask[vertex] |= mask;
+				activeSources |= mask;
+			}
+			
+			Frontier swap = current;
+			current = next;
+			next = swap;
+			next.clear();
 			
-			double[] centrality = getCentralityRangeBased(i);
+			level++;
 			
+		}
+		
+		for (int i = 0; i < count; i++) {
+			long[] totalDistances = workspace.totalDistances[i];
+			int[] sccSize = workspace.visitedSize[i];
+			double[] centralities = workspace.centralities[i];
 			for (int j = 0; j < this.numSnapshots; j++) {
-				allCentrality.get(j).add(new VertexCentrality(i, centrality[j]));
+				if (totalDistances[j] == 0) {
+					centralities[j] = 0;
+				} else {
+					centralities[j] = 1.0 * (double)(sccSize[j] - 1) * (double)(sccSize[j] - 1) / (double)totalDistances[j] / (double)(this.numVertices - 1);
+				}
 			}
-
-			
 		}
-
 		
-		List<List<VertexCentrality>> topKs = new ArrayList<List<VertexCentrality>>(this.numSnapshots);
+	}
+	
+	/**
+	 * Adds the vertices improved at this level to the distances of each active source, clearing the differences.
+	 */
+	private void addLevelDistances(MultiSourceWorkspace workspace, long activeSources, int level) {
+		for (long bits = activeSources; bits != 0; bits &= bits - 1) {
+			int i = Long.numberOfTrailingZeros(bits);
+			int[] differences = workspace.levelDifferences[i];
+			long[] totalDistances = workspace.totalDistances[i];
+			int[] sccSize = workspace.visitedSize[i];
+			int improved = 0;
+			for (int j = 0; j < this.numSnapshots; j++) {
+				improved += differences[j];
+				differences[j] = 0;
+				totalDistances[j] += (long) level * improved;
+				sccSize[j] += improved;
+			}
+			differences[this.numSnapshots] = 0;
+		}
+	}
+	
+	
+	public List<List<VertexCentrality>> getTopKBruteForce(int k, int maxNumber) {
 		
-		for (int i = 0; i < this.numSnapshots; i++) {
-			Collections.sort(allCentrality.get(i));
-			Collections.reverse(allCentrality.get(i));
+		long start = System.currentTimeMillis();
+		this.logger.info("+getTopKBruteForce()");
+		
+		int numSources = Math.min(this.numVertices, maxNumber);
+		
+		// One heap per snapshot per worker, merged once all workers are done
+		List<TopKHeap[]> workerTopKs = Collections.synchronizedList(new ArrayList<TopKHeap[]>(this.parallelism));
+		AtomicInteger nextSource = new AtomicInteger(0);
+		
+		// Workers claim batches of consecutive sources for the multi source BFS, the workers share the memory
+		int batchSize = this.getMultiSourceBatchSize(this.parallelism);
+		this.logger.debug("Multi source batches of {} sources.", batchSize);
+		
+		this.runWorkers(() -> {
+			
+			MultiSourceWorkspace workspace = this.getMultiSourceWorkspace(batchSize);
+			TopKHeap[] currentTopKs = this.newTopKHeaps(k);
+			workerTopKs.add(currentTopKs);
 			
-			List<VertexCentrality> topK = new ArrayList<VertexCentrality>();
-			for (int j = 0; j < k; j++) {
-				topK.add(allCentrality.get(i).get(j));
+			int[] batch = new int[batchSize];
+			int first;
+			while ((first = nextSource.getAndAdd(batchSize)) < numSources) {
+				
+				if (first % 1024 == 0 && first > 0) {
+					this.logger.debug("Processing vertex {}: {} seconds.", first, (System.currentTimeMillis()-start)*1.0/1000);
+				}
+				
+				int count = Math.min(batchSize, numSources - first);
+				for (int i = 0; i < count; i++) {
+					batch[i] = first + i;
+				}
+				this.getCentralityMultiSource(batch, 0, count, workspace);
+				
+				for (int i = 0; i < count; i++) {
+					double[] centrality = workspace.centralities[i];
+					for (int j = 0; j < this.numSnapshots; j++) {
+						currentTopKs[j].offer(first + i, centrality[j]);
+					}
+				}
+				
 			}
-			topKs.add(topK);
-		}
+			
+		});
 		
+		List<List<VertexCentrality>> topKs = this.mergeTopKs(workerTopKs, k);
 		
 		long end = System.currentTimeMillis();
 		this.logger.info("Calculating top k brute force time: {} seconds.", (end-start)*1.0/1000);
@@ -815,86 +984,132 @@ public class TimeEvolvingGraphInsertionOnly {
 	public List<List<VertexCentrality>> getTopKCentralityPruned(int k, int maxNumber) {
 		
 		long start = System.currentTimeMillis();
-		System.out.println();
-		System.out.println("+getTopKPruned()");
-
-		List<List<VertexCentrality>> allCentrality = new ArrayList<List<VertexCentrality>>(this.snapshotsGraph.size());
-		for (int i = 0; i < this.snapshotsGraph.size(); i++) {
-			List<VertexCentrality> centralityPerSnapshot = new ArrayList<VertexCentrality>(this.numVertices);
-			allCentrality.add(centralityPerSnapshot);
-		}
-
+		this.logger.info("+getTopKCentralityPruned()");
 		
-		List<List<Double>> currentTopKs = new ArrayList<List<Double>>(this.snapshotsGraph.size());
-		double[] threshold = new double[this.snapshotsGraph.size()];
+		int numSources = Math.min(this.numVertices, maxNumber);
 		
-		for (int i = 0; i < this.snapshotsGraph.size(); i++) {
-			List<Double> topK = new ArrayList<Double>(k);
-			currentTopKs.add(topK);
-		}
+		List<TopKHeap[]> workerTopKs = Collections.synchronizedList(new ArrayList<TopKHeap[]>(this.parallelism));
+		AtomicInteger nextSource = new AtomicInteger(0);
 		
-		long previous = start;
-		for (int i = 0; i < this.numVertices && i < maxNumber; i++) {
-			
-			if (i % 1000 == 0 && i > 0) {
-				long end = System.currentTimeMillis();
-				System.out.println("Processing vertex " + i + ": " + (end-previous)*1.0/1000 + " seconds.");
-				previous = end;
-				
-//				System.out.print("Current top k: ");
-//				for (int t = 0; t < this.snapshots.size(); t++) {
-//					System.out.print(currentTopKs.get(t).get(0) + " ");
-//				}
-//				System.out.println();
-			}
+		// Every worker prunes with the best threshold published so far
+		SnapshotThresholds thresholds = new SnapshotThresholds(this.numSnapshots);
+		this.buildComponents();
+		
+		this.runWorkers(() -> {
 			
-			double[] centrality = getCentralityPruned(i, threshold);
+			QueryWorkspace workspace = this.getWorkspace();
 			
-			for (int j = 0; j < this.snapshotsGraph.size(); j++) {
-				allCentrality.get(j).add(new VertexCentrality(i, centrality[j]));
+			// The worker's own top k, its k-th values lower bound the global top k
+			TopKHeap[] currentTopKs = this.newTopKHeaps(k);
+			workerTopKs.add(currentTopKs);
 			
-				if (currentTopKs.get(j).size() < k) {
-					currentTopKs.get(j).add(centrality[j]);
-				} else {
-					if (centrality[j] > threshold[j]) {
-
-						currentTopKs.get(j).add(centrality[j]);
-						Collections.sort(currentTopKs.get(j));
-						currentTopKs.get(j).remove(0);
-						
-						threshold[j] = currentTopKs.get(j).get(0);
-						
+			int i;
+			while ((i = nextSource.getAndIncrement()) < numSources) {
+				
+				if (i % 1000 == 0 && i > 0) {
+					this.logger.debug("Processing vertex {}: {} seconds.", i, (System.currentTimeMillis()-start)*1.0/1000);
+				}
+				
+				double[] centrality = this.getCentralityPruned(i, thresholds, workspace);
+				
+				for (int j = 0; j < this.numSnapshots; j++) {
+					if (currentTopKs[j].offer(i, centrality[j]) && currentTopKs[j].isFull()) {
+						thresholds.raise(j, currentTopKs[j].threshold());
 					}
 				}
-			
-			
+				
 			}
-
 			
+		});
+		
+		List<List<VertexCentrality>> topKs = this.mergeTopKs(workerTopKs, k);
+		
+		long end = System.currentTimeMillis();
+		this.logger.info("Calculating top k pruned time: {} seconds.", (end-start)*1.0/1000);
+		this.logger.info("-getTopKCentralityPruned()");
+		
+		return topKs;
+	}
+	
+	
+	private TopKHeap[] newTopKHeaps(int k) {
+		TopKHeap[] heaps = new TopKHeap[this.numSnapshots];
+		for (int i = 0; i < this.numSnapshots; i++) {
+			heaps[i] = new TopKHeap(k);
 		}
-
+		return heaps;
+	}
+	
+	
+	private List<List<VertexCentrality>> mergeTopKs(List<TopKHeap[]> workerTopKs, int k) {
 		
-		List<List<VertexCentrality>> topKs = new ArrayList<List<VertexCentrality>>(this.snapshotsGraph.size());
+		List<List<VertexCentrality>> topKs = new ArrayList<List<VertexCentrality>>(this.numSnapshots);
 		
-		for (int i = 0; i < this.snapshotsGraph.size(); i++) {
-			Collections.sort(allCentrality.get(i));
-			Collections.reverse(allCentrality.get(i));
-			
-			List<VertexCentrality> topK = new ArrayList<VertexCentrality>();
-			for (int j = 0; j < k; j++) {
-				topK.add(allCentrality.get(i).get(j));
+		for (int i = 0; i < this.numSnapshots; i++) {
+			TopKHeap topK = new TopKHeap(k);
+			for (TopKHeap[] currentTopKs: workerTopKs) {
+				topK.addAll(currentTopKs[i]);
+			}
+			List<VertexCentrality> topKList = topK.toList();
+			for (VertexCentrality vc: topKList) {
+				vc.setId(String.valueOf(this.ids.getVertexId(vc.getVertex())));
 			}
-			topKs.add(topK);
+			topKs.add(topKList);
 		}
 		
+		return topKs;
 		
-		long end = System.currentTimeMillis();
-		System.out.println("-getTopKPruned()");
-		System.out.println("Calculating top k pruned time: " + (end-start)*1.0/1000 + " seconds.");
-		System.out.println();
+	}
+	
+	
+	/**
+	 * Runs the worker on {@link #parallelism} threads and waits until all of them finish.
+	 * Workers share what they were built with, such as the claim counter, the list of their top k heaps or the
+	 * pruning thresholds, so those must be thread safe.
+	 */
+	private void runWorkers(Runnable worker) {
+		
+		ForkJoinPool pool = this.getPool();
+		
+		List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>(this.parallelism);
+		for (int i = 0; i < this.parallelism; i++) {
+			tasks.add(pool.submit(worker));
+		}
+		for (ForkJoinTask<?> task: tasks) {
+			task.join();
+		}
 		
+	}
+	
+	
+	/**
+	 * Idle threads of the pool stay alive for a day instead of the default minute, a thread that ends takes its
+	 * workspaces with it.
+	 */
+	private synchronized ForkJoinPool getPool() {
+		
+		if (this.pool != null && this.pool.getParallelism() != this.parallelism) {
+			this.pool.shutdown();
+			this.pool = null;
+		}
+		if (this.pool == null) {
+			this.pool = new ForkJoinPool(this.parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, false,
+					this.parallelism, this.parallelism + 256, 1, null, 1, TimeUnit.DAYS);
+		}
+		return this.pool;
 		
-		return topKs;
+	}
+	
+	
+	/**
+	 * Shuts the pool down, a later parallel query starts a new one.
+	 */
+	@Override
+	public synchronized void close() {
+		if (this.pool != null) {
+			this.pool.shutdown();
+			this.pool = null;
+		}
 	}
 	
 	
@@ -1063,9 +1278,9 @@ public class TimeEvolvingGraphInsertionOnly {
 
 		// Get max degree vertex
 		int maxDegreeVertex = 0;
-		int maxDegree = this.condensedGraph.get(maxDegreeVertex).size();
+		int maxDegree = this.condensedGraph.degree(maxDegreeVertex);
 		for (int i = 0; i < this.numVertices; i++) {
-			int degree = this.condensedGraph.get(i).size();
+			int degree = this.condensedGraph.degree(i);
 			if (degree > maxDegree) {
 				maxDegree = degree;
 				maxDegreeVertex = i;
@@ -1280,80 +1495,109 @@ public class TimeEvolvingGraphInsertionOnly {
 	
 	
 	public double[] getCentralityPruned(int source, double[] threshold) {
+		this.buildComponents();
+		return this.getCentralityPruned(source, new SnapshotThresholds(threshold), this.getWorkspace()).clone();
+	}
+	
+	/**
+	 * Sweeps the snapshot components that bound the pruned queries, once. Queries only read them afterwards.
+	 */
+	private synchronized void buildComponents() {
 		
-		int[] sccSize = this.sccSizes[source];
-		int[] visitedSize = new int[this.numSnapshots];
+		if (this.components != null) {
+			return;
+		}
 		
-		boolean[] pruned = new boolean[this.numSnapshots];
-		int prunedSnapshots = 0;
+		logger.debug("+buildComponents()");
+		this.components = SnapshotComponents.sweep(this.condensedGraph, this.numSnapshots);
+		logger.debug("-buildComponents()");
 		
-		double[] centralities = new double[this.numSnapshots];
-		Arrays.fill(centralities, 0);
+	}
+	
+	/**
+	 * Snapshots whose centrality bound falls below the threshold are pruned and get 0, the others get their exact
+	 * centrality. The snapshot components must have been built.
+	 */
+	private double[] getCentralityPruned(int source, SnapshotThresholds threshold, QueryWorkspace workspace) {
 		
-		// Values default to be 0
-		int[] totalDistances = new int[this.numSnapshots];
+		workspace.reset();
 		
-		int[] discoveredTime = new int[this.numVertices];
-		Arrays.fill(discoveredTime, Integer.MAX_VALUE);
+		// Upper bounds of the number of vertices the source reaches
+		int[] sccSize = workspace.componentSizes;
+		this.components.getComponentSizes(source, sccSize);
+		int[] visitedSize = workspace.visitedSize;
+		
+		boolean[] pruned = workspace.pruned;
+		int prunedSnapshots = 0;
+		
+		double[] centralities = workspace.centralities;
+		
+		long[] totalDistances = workspace.totalDistances;
+		int[] discoveredTime = workspace.discoveredTime;
 		
 		int level = 0;
 		
-		int[] currentLevel = new int[this.numVertices];
-		Arrays.fill(currentLevel, Integer.MAX_VALUE);
-		int[] nextLevel = new int[this.numVertices];
-		Arrays.fill(nextLevel, Integer.MAX_VALUE);
-
+		int[] currentLevel = workspace.currentLevel;
+		int[] nextLevel = workspace.nextLevel;
+		
+		workspace.touch(source);
 		currentLevel[source] = 0;
 		
-		boolean hasNext = true;
+		// Only the vertices of the current level are visited
+		Frontier current = workspace.current;
+		Frontier next = workspace.next;
+		current.add(source);
 		
 		int snapshotUpperbound = this.numSnapshots - 1;
-		int snapshotLowerbound = Integer.MAX_VALUE;
+		// The source is in every snapshot
+		int snapshotLowerbound = 0;
 				
-		while (hasNext) {
+		while (!current.isEmpty()) {
 			
-			int[] verticesPerTimestamp = new int[this.numSnapshots];
+			int[] verticesPerTimestamp = workspace.verticesPerTimestamp;
 			Arrays.fill(verticesPerTimestamp, 0);
 			
-			for (int vertex = 0; vertex < this.numVertices; vertex++) {
+			for (int index = 0; index < current.size(); index++) {
 				
-				if (currentLevel[vertex] != Integer.MAX_VALUE) {
+				int vertex = current.get(index);
+				
+				// Newly discovered vertex, update distance at the end
+				if (discoveredTime[vertex] == Integer.MAX_VALUE) {
+					verticesPerTimestamp[currentLevel[vertex]]++;
 					
-					// Newly discovered vertex, update distance at the end
-					if (discoveredTime[vertex] == Integer.MAX_VALUE) {
-						verticesPerTimestamp[currentLevel[vertex]]++;
-						
-					}
-					// Existing vertex, update distance separately
-					else {
-						
-						for (int time = currentLevel[vertex]; time < discoveredTime[vertex]; time++) {
-							totalDistances[time] += level;
-							visitedSize[time]++;
-						}
-						
+				}
+				// Existing vertex, update distance separately
+				else {
+					
+					for (int time = currentLevel[vertex]; time < discoveredTime[vertex]; time++) {
+						totalDistances[time] += level;
+						visitedSize[time]++;
 					}
 					
-					// Update discovered time
-					discoveredTime[vertex] = currentLevel[vertex];
+				}
+				
+				// Update discovered time
+				discoveredTime[vertex] = currentLevel[vertex];
+				
+				//Add next level
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
 					
-					//Add next level
-					for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
-						
-						int neighbor = edge.getTarget();
-						int neighborDiscoverTime = Math.max(edge.getTimestamp(), currentLevel[vertex]);
+					int neighbor = this.condensedGraph.target(edge);
+					int neighborDiscoverTime = Math.max(this.condensedGraph.timestamp(edge), currentLevel[vertex]);
+					workspace.touch(neighbor);
+					
+					if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
 						
-						if (neighborDiscoverTime < discoveredTime[neighbor] && neighborDiscoverTime < currentLevel[neighbor]) {
-							
-							if (neighborDiscoverTime < nextLevel[neighbor]) {
-								nextLevel[neighbor] = neighborDiscoverTime;
+						if (neighborDiscoverTime < nextLevel[neighbor]) {
+							if (nextLevel[neighbor] == Integer.MAX_VALUE) {
+								next.add(neighbor);
 							}
-							
+							nextLevel[neighbor] = neighborDiscoverTime;
 						}
 						
-						
 					}
 					
+					
 				}
 				
 			}
@@ -1362,7 +1606,7 @@ public class TimeEvolvingGraphInsertionOnly {
 			for (int i = snapshotLowerbound; i <= snapshotUpperbound; i++) {
 								
 				for (int j = i; j <= snapshotUpperbound; j++) {
-					totalDistances[j] += level * verticesPerTimestamp[i];
+					totalDistances[j] += (long) level * verticesPerTimestamp[i];
 					visitedSize[j] += verticesPerTimestamp[i];
 				}
 
@@ -1370,22 +1614,25 @@ public class TimeEvolvingGraphInsertionOnly {
 
 			
 			// Begin next iteration
-			hasNext = false;
 			snapshotLowerbound = Integer.MAX_VALUE;
-			for (int i = 0; i < this.numVertices; i++) {
-				currentLevel[i] = nextLevel[i];
-				
-				if (nextLevel[i] != Integer.MAX_VALUE) {
-					hasNext = true;
-					nextLevel[i] = Integer.MAX_VALUE;
-				}
+			for (int i = 0; i < current.size(); i++) {
+				currentLevel[current.get(i)] = Integer.MAX_VALUE;
+			}
+			for (int i = 0; i < next.size(); i++) {
+				int vertex = next.get(i);
+				currentLevel[vertex] = nextLevel[vertex];
+				nextLevel[vertex] = Integer.MAX_VALUE;
 				
-				if (currentLevel[i] != Integer.MAX_VALUE && currentLevel[i] < snapshotLowerbound) {
-					snapshotLowerbound = currentLevel[i];
+				if (currentLevel[vertex] < snapshotLowerbound) {
+					snapshotLowerbound = currentLevel[vertex];
 				}
-				
 			}
 			
+			Frontier swap = current;
+			current = next;
+			next = swap;
+			next.clear();
+			
 			level++;
 			
 			
@@ -1400,7 +1647,7 @@ public class TimeEvolvingGraphInsertionOnly {
 				
 				int communitySize = sccSize[i];
 				
-				int distanceLowerbound = totalDistances[i] + level * (communitySize - visitedSize[i]);
+				long distanceLowerbound = totalDistances[i] + (long) level * (communitySize - visitedSize[i]);
 				double upperbound;
 				if (distanceLowerbound - 0 < 0.00001) {
 					upperbound = 0;
@@ -1408,7 +1655,12 @@ public class TimeEvolvingGraphInsertionOnly {
 					upperbound = 1.0 * (communitySize - 1) * (communitySize - 1) / distanceLowerbound / (numVertices - 1);
 				}
 				
-				if (upperbound < threshold[i]) {
+				// The bound is not monotone in the number of reached vertices, it peaks at either end of the range
+				if (totalDistances[i] > 0) {
+					upperbound = Math.max(upperbound, 1.0 * (visitedSize[i] - 1) * (visitedSize[i] - 1) / totalDistances[i] / (numVertices - 1));
+				}
+				
+				if (upperbound < threshold.get(i)) {
 					centralities[i] = 0;
 					pruned[i] = true;
 					prunedSnapshots++;
@@ -1440,7 +1692,7 @@ public class TimeEvolvingGraphInsertionOnly {
 			if (totalDistances[i] == 0) {
 				centralities[i] = 0;
 			} else {
-				centralities[i] = 1.0 * (double)(sccSize[i] - 1) * (double)(sccSize[i] - 1) / (double)totalDistances[i] / (double)(this.numVertices - 1);
+				centralities[i] = 1.0 * (double)(visitedSize[i] - 1) * (double)(visitedSize[i] - 1) / (double)totalDistances[i] / (double)(this.numVertices - 1);
 			}
 			
 		}
@@ -1450,60 +1702,47 @@ public class TimeEvolvingGraphInsertionOnly {
 	}
 	
 	
-	private double getSnapshotCentralityWithSG(int source, int timestamp) {
+	private double getSnapshotCentralityWithSG(int source, int timestamp, SnapshotWorkspace workspace) {
 		
-		Map<Integer, List<Integer>> snapshot = this.snapshotsGraph.get(timestamp);
+		SnapshotView snapshot = this.condensedGraph.snapshot(timestamp);
 		
-		int totalDistances = 0;
+		int[] queue = workspace.queue;
+		long totalDistances = 0;
 		
-		boolean[] visited = new boolean[this.numVertices];
-		Arrays.fill(visited, false);
+		workspace.visit(source);
+		queue[0] = source;
 		
+		int head = 0;
+		int tail = 1;
 		int level = 0;
 		
-		Set<Integer> currentLevel = new HashSet<Integer>();
-		Set<Integer> nextLevel = new HashSet<Integer>();
-
-		currentLevel.add(source);
-		
-		
-		while (currentLevel.size() > 0) {
+		while (head < tail) {
 			
 			// Update distance
-			totalDistances += level * currentLevel.size();
+			int levelEnd = tail;
+			totalDistances += (long) level * (levelEnd - head);
 
 			// Add next level
-			for (int vertex: currentLevel) {
+			for (; head < levelEnd; head++) {
 				
-				visited[vertex] = true;
+				int vertex = queue[head];
 				
-				if (snapshot.containsKey(vertex)) {
-					for (Integer neighbor: snapshot.get(vertex)) {
-						if (!visited[neighbor] && !nextLevel.contains(neighbor) && !currentLevel.contains(neighbor)) {
-							nextLevel.add(neighbor);
-						}
+				for (int edge = snapshot.begin(vertex), end = snapshot.end(vertex); edge < end; edge++) {
+					int neighbor = snapshot.target(edge);
+					if (workspace.visit(neighbor)) {
+						queue[tail++] = neighbor;
 					}
 				}
 				
 			}
 			
-			// Begin next iteration
-			currentLevel.clear();
-			currentLevel.addAll(nextLevel);
-			nextLevel.clear();
-			
 			level++; 
 			
 		}
 		
-		// Find connected component
-		int sccSize = 0;
-		for (int i = 0; i < visited.length; i++) {
-			if (visited[i]) {
-				sccSize++;
-			}
-		}
-		
+		// The queue holds the connected component
+		int sccSize = tail;
+		workspace.clear(tail);
 		
 		if (totalDistances == 0) {
 			return 0;
@@ -1513,64 +1752,52 @@ public class TimeEvolvingGraphInsertionOnly {
 
 	}
 	
-	private double getSnapshotCentralityWithCG(int source, int timestamp) {
+	private double getSnapshotCentralityWithCG(int source, int timestamp, SnapshotWorkspace workspace) {
 		
-		int totalDistances = 0;
+		int[] queue = workspace.queue;
+		long totalDistances = 0;
 		
-		boolean[] visited = new boolean[this.numVertices];
-		Arrays.fill(visited, false);
+		workspace.visit(source);
+		queue[0] = source;
 		
+		int head = 0;
+		int tail = 1;
 		int level = 0;
 		
-		Set<Integer> currentLevel = new HashSet<Integer>();
-		Set<Integer> nextLevel = new HashSet<Integer>();
-
-		currentLevel.add(source);
-		
-		
-		while (currentLevel.size() > 0) {
+		while (head < tail) {
 			
 			// Update distance
-			totalDistances += level * currentLevel.size();
+			int levelEnd = tail;
+			totalDistances += (long) level * (levelEnd - head);
 
 			// Add next level
-			for (int vertex: currentLevel) {
+			for (; head < levelEnd; head++) {
 				
-				visited[vertex] = true;
+				int vertex = queue[head];
 				
-				for (EdgeWithTimestamp edge: this.condensedGraph.get(vertex)) {
+				// Edges are sorted by timestamp, the first later one ends the snapshot
+				for (int edge = this.condensedGraph.begin(vertex); edge < this.condensedGraph.end(vertex); edge++) {
 					
-					if (edge.getTimestamp() > timestamp) {
-						continue;
+					if (this.condensedGraph.timestamp(edge) > timestamp) {
+						break;
 					}
 
-
-					int neighbor = edge.getTarget();
-
-					if (!visited[neighbor] && !nextLevel.contains(neighbor) && !currentLevel.contains(neighbor)) {
-						nextLevel.add(neighbor);
+					int neighbor = this.condensedGraph.target(edge);
+					if (workspace.visit(neighbor)) {
+						queue[tail++] = neighbor;
 					}
 
 				}
 			
 			}
 			
-			// Begin next iteration
-			currentLevel.clear();
-			currentLevel.addAll(nextLevel);
-			nextLevel.clear();
-			
 			level++; 
 			
 		}
 		
-		// Find connected component
-		int sccSize = 0;
-		for (int i = 0; i < visited.length; i++) {
-			if (visited[i]) {
-				sccSize++;
-			}
-		}
+		// The queue holds the connected component
+		int sccSize = tail;
+		workspace.clear(tail);
 		
 		if (totalDistances == 0) {
 			return 0;
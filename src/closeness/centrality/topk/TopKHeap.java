@@ -0,0 +1,147 @@
+package closeness.centrality.topk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded min-heap keeping the k vertices with the highest centrality of one snapshot.
+ * Ties are broken by vertex id, the higher id ranks first.
+ */
+public class TopKHeap {
+
+	private final int capacity;
+	private final int[] vertices;
+	private final double[] values;
+	private int size;
+
+	public TopKHeap(int capacity) {
+		this.capacity = capacity;
+		this.vertices = new int[capacity];
+		this.values = new double[capacity];
+		this.size = 0;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public boolean isFull() {
+		return this.size == this.capacity;
+	}
+
+	/**
+	 * The k-th best value once k vertices have been offered, 0 before that.
+	 */
+	public double threshold() {
+		if (this.size < this.capacity || this.capacity == 0) {
+			return 0;
+		}
+		return this.values[0];
+	}
+
+	/**
+	 * Returns true if the vertex is kept in the current top k.
+	 */
+	public boolean offer(int vertex, double value) {
+
+		if (this.size < this.capacity) {
+			this.vertices[this.size] = vertex;
+			this.values[this.size] = value;
+			this.siftUp(this.size);
+			this.size++;
+			return true;
+		}
+
+		if (this.capacity == 0 || !this.greater(vertex, value, this.vertices[0], this.values[0])) {
+			return false;
+		}
+
+		this.vertices[0] = vertex;
+		this.values[0] = value;
+		this.siftDown(0);
+		return true;
+
+	}
+
+	public void addAll(TopKHeap other) {
+		for (int i = 0; i < other.size; i++) {
+			this.offer(other.vertices[i], other.values[i]);
+		}
+	}
+
+	/**
+	 * The kept vertices ranked from the highest centrality, the heap is left untouched.
+	 */
+	public List<VertexCentrality> toList() {
+
+		TopKHeap copy = new TopKHeap(this.capacity);
+		copy.addAll(this);
+
+		VertexCentrality[] ranking = new VertexCentrality[copy.size];
+		for (int i = copy.size - 1; i >= 0; i--) {
+			ranking[i] = new VertexCentrality(copy.vertices[0], copy.values[0]);
+			copy.removeMin();
+		}
+
+		List<VertexCentrality> list = new ArrayList<VertexCentrality>(ranking.length);
+		for (VertexCentrality vc: ranking) {
+			list.add(vc);
+		}
+		return list;
+
+	}
+
+	private void removeMin() {
+		this.size--;
+		this.vertices[0] = this.vertices[this.size];
+		this.values[0] = this.values[this.size];
+		this.siftDown(0);
+	}
+
+	private boolean greater(int vertex1, double value1, int vertex2, double value2) {
+		int compare = Double.compare(value1, value2);
+		return compare > 0 || (compare == 0 && vertex1 > vertex2);
+	}
+
+	private void siftUp(int index) {
+		int vertex = this.vertices[index];
+		double value = this.values[index];
+
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!this.greater(this.vertices[parent], this.values[parent], vertex, value)) {
+				break;
+			}
+			this.vertices[index] = this.vertices[parent];
+			this.values[index] = this.values[parent];
+			index = parent;
+		}
+
+		this.vertices[index] = vertex;
+		this.values[index] = value;
+	}
+
+	private void siftDown(int index) {
+		int vertex = this.vertices[index];
+		double value = this.values[index];
+
+		int half = this.size >>> 1;
+		while (index < half) {
+			int child = 2 * index + 1;
+			int right = child + 1;
+			if (right < this.size && this.greater(this.vertices[child], this.values[child], this.vertices[right], this.values[right])) {
+				child = right;
+			}
+			if (!this.greater(vertex, value, this.vertices[child], this.values[child])) {
+				break;
+			}
+			this.vertices[index] = this.vertices[child];
+			this.values[index] = this.values[child];
+			index = child;
+		}
+
+		this.vertices[index] = vertex;
+		this.values[index] = value;
+	}
+
+}
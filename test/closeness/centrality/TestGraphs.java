@@ -0,0 +1,84 @@
+package closeness.centrality;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Small random edge lists for the tests. Every vertex and every snapshot occurs in some edge. Vertex ids and
+ * timestamps are sparse raw values, so reading them also exercises the id remapping.
+ */
+public final class TestGraphs {
+
+	private TestGraphs() {
+	}
+
+	/**
+	 * "source,target,timestamp" lines, no self loops and no edge twice.
+	 */
+	public static String writeInsertions(Path directory, int numVertices, int numEdges, int numSnapshots, long seed) throws IOException {
+		return write(directory.resolve("insertions-" + seed + ".txt"), numVertices, numEdges, numSnapshots, 0, seed);
+	}
+
+	/**
+	 * "source,target,startTime,endTime" lines, no self loops and no edge twice.
+	 */
+	public static String writeIntervals(Path directory, int numVertices, int numEdges, int numSnapshots, long seed) throws IOException {
+		return writeIntervals(directory, numVertices, numEdges, numSnapshots, numSnapshots, seed);
+	}
+
+	/**
+	 * Intervals of at most maxLifetime snapshots.
+	 */
+	public static String writeIntervals(Path directory, int numVertices, int numEdges, int numSnapshots, int maxLifetime, long seed) throws IOException {
+		return write(directory.resolve("intervals-" + seed + ".txt"), numVertices, numEdges, numSnapshots, maxLifetime, seed);
+	}
+
+	/**
+	 * Without end times if maxLifetime is 0.
+	 */
+	private static String write(Path path, int numVertices, int numEdges, int numSnapshots, int maxLifetime, long seed) throws IOException {
+
+		Random random = new Random(seed);
+		Set<Long> edges = new HashSet<Long>();
+
+		try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(path))) {
+			while (edges.size() < numEdges) {
+
+				// The first edges leave every vertex once and cover every snapshot once
+				int source = edges.size() < numVertices ? edges.size() : random.nextInt(numVertices);
+				int target = random.nextInt(numVertices);
+				if (source == target || !edges.add((long) source * numVertices + target)) {
+					continue;
+				}
+
+				int start = edges.size() <= numSnapshots ? edges.size() - 1 : random.nextInt(numSnapshots);
+				writer.print(vertexId(source) + "," + vertexId(target) + "," + timestamp(start));
+				if (maxLifetime > 0) {
+					writer.print("," + timestamp(start + random.nextInt(Math.min(numSnapshots - start, maxLifetime))));
+				}
+				writer.println();
+
+			}
+		}
+
+		return path.toString();
+
+	}
+
+	/**
+	 * Raw id written for the vertex, the ids grow with the vertex so the remapping gives the vertex back.
+	 */
+	public static long vertexId(int vertex) {
+		return 1000003L * vertex + 17;
+	}
+
+	public static long timestamp(int snapshot) {
+		return 1500000000L + 86400L * snapshot;
+	}
+
+}
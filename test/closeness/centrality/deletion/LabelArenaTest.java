@@ -0,0 +1,107 @@
+package closeness.centrality.deletion;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import closeness.centrality.entity.Label;
+import closeness.centrality.entity.TimeInterval;
+
+public class LabelArenaTest {
+
+	private static final int NUM_VERTICES = 8;
+	private static final int NUM_SNAPSHOTS = 50;
+
+	/**
+	 * Random merges in distance order, as the range based query makes them, against the list merge of Label
+	 * the query used before.
+	 */
+	@Test
+	public void mergeMatchesLabelLists() {
+
+		Random random = new Random(11);
+
+		for (int trial = 0; trial < 200; trial++) {
+
+			LabelArena arena = new LabelArena(NUM_VERTICES);
+			List<List<Label>> lists = new ArrayList<List<Label>>();
+			for (int i = 0; i < NUM_VERTICES; i++) {
+				lists.add(new ArrayList<Label>());
+			}
+
+			int distance = 0;
+			for (int step = 0; step < 60; step++) {
+
+				distance += random.nextInt(3) == 0 ? 1 : 0;
+				int vertex = random.nextInt(NUM_VERTICES);
+				int start = random.nextInt(NUM_SNAPSHOTS);
+				int end = start + random.nextInt(Math.min(NUM_SNAPSHOTS - start, 12));
+
+				int[] before = distances(lists.get(vertex));
+				boolean changed = Label.mergeLabel(lists.get(vertex), new Label(vertex, distance, new TimeInterval(start, end)));
+
+				LabelQueue added = new LabelQueue();
+				int numAdded = arena.merge(vertex, start, end, distance, added);
+
+				assertEquals(changed, numAdded > 0);
+				assertEquals(numAdded, added.size());
+
+				// The new labels are exactly the times the merge newly covered
+				int[] newlyCovered = new int[NUM_SNAPSHOTS];
+				Arrays.fill(newlyCovered, -1);
+				for (int i = 0; i < added.size(); i++) {
+					assertEquals(vertex, added.vertex(i));
+					for (int time = added.start(i); time <= added.end(i); time++) {
+						assertEquals(-1, newlyCovered[time]);
+						newlyCovered[time] = distance;
+					}
+				}
+				int[] after = distances(lists.get(vertex));
+				for (int time = 0; time < NUM_SNAPSHOTS; time++) {
+					assertEquals(before[time] == -1 ? after[time] : -1, newlyCovered[time]);
+				}
+
+				for (int i = 0; i < NUM_VERTICES; i++) {
+					assertArrayEquals(distances(lists.get(i)), distances(arena, i), "vertex " + i);
+				}
+
+			}
+
+		}
+
+	}
+
+	private static int[] distances(List<Label> labels) {
+		int[] distances = new int[NUM_SNAPSHOTS];
+		Arrays.fill(distances, -1);
+		for (Label label: labels) {
+			for (int time = label.getStartTime(); time <= label.getEndTime(); time++) {
+				distances[time] = label.getDistance();
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Distances of the vertex by time, the labels must be disjoint and sorted by start time.
+	 */
+	private static int[] distances(LabelArena arena, int vertex) {
+		int[] distances = new int[NUM_SNAPSHOTS];
+		Arrays.fill(distances, -1);
+		for (int i = 0; i < arena.size(vertex); i++) {
+			assertTrue(i == 0 || arena.end(vertex, i - 1) < arena.start(vertex, i));
+			for (int time = arena.start(vertex, i); time <= arena.end(vertex, i); time++) {
+				distances[time] = arena.distance(vertex, i);
+			}
+		}
+		return distances;
+	}
+
+}
@@ -0,0 +1,122 @@
+package closeness.centrality.deletion;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import closeness.centrality.TestGraphs;
+import closeness.centrality.entity.CondensedGraph;
+import closeness.centrality.io.EdgeListReader;
+
+public class TimeEvolvingGraphDecrementalTest {
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * The dynamic query updates one tree from snapshot to snapshot, it must match a BFS per snapshot.
+	 */
+	@Test
+	public void dynamicIncrementalMatchesSnapshotBased() throws IOException {
+
+		TimeEvolvingGraphDecremental graph = this.load(150, 900, 25, 1);
+
+		for (int source = 0; source < graph.getNumVertices(); source++) {
+			assertArrayEquals(graph.getCentralitySnapshotBased(source), graph.getCentralityDynamicIncremental(source), "source " + source);
+		}
+
+	}
+
+	/**
+	 * Edges living one to three snapshots, most of them do not overlap a given label. The range based query treats
+	 * an edge as present from its start time to its end time, it must match a BFS over those edges in each snapshot.
+	 */
+	@Test
+	public void rangeBasedMatchesBfsOnShortLivedEdges() throws IOException {
+
+		String path = TestGraphs.writeIntervals(this.directory, 100, 3000, 40, 3, 3);
+		TimeEvolvingGraphDecremental graph = new TimeEvolvingGraphDecremental();
+		graph.constructGraph(path);
+		CondensedGraph edges = EdgeListReader.readIntervals(path, 1).getCondensedGraph();
+
+		for (int source = 0; source < graph.getNumVertices(); source++) {
+			assertArrayEquals(centralities(edges, graph.getNumSnapshots(), source), graph.getCentralityRangeBased(source), "source " + source);
+		}
+
+	}
+
+	/**
+	 * The sources of the multi source query share one forest.
+	 */
+	@Test
+	public void multiSourceMatchesSingleSource() throws IOException {
+
+		TimeEvolvingGraphDecremental graph = this.load(150, 900, 25, 2);
+		graph.setParallelism(3);
+
+		int[] sources = new int[graph.getNumVertices()];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = i;
+		}
+
+		double[][] centralities = graph.getCentralityDynamicIncremental(sources);
+		for (int i = 0; i < sources.length; i++) {
+			assertArrayEquals(graph.getCentralityDynamicIncremental(sources[i]), centralities[i], "source " + sources[i]);
+		}
+
+	}
+
+	/**
+	 * Centralities of the source by a BFS per snapshot over the edges alive in it.
+	 */
+	private static double[] centralities(CondensedGraph graph, int numSnapshots, int source) {
+
+		int numVertices = graph.getNumVertices();
+		double[] centralities = new double[numSnapshots];
+
+		for (int snapshot = 0; snapshot < numSnapshots; snapshot++) {
+
+			int[] levels = new int[numVertices];
+			Arrays.fill(levels, -1);
+			levels[source] = 0;
+			List<Integer> queue = new ArrayList<Integer>();
+			queue.add(source);
+			long totalDistance = 0;
+
+			for (int i = 0; i < queue.size(); i++) {
+				int vertex = queue.get(i);
+				totalDistance += levels[vertex];
+				for (int edge = graph.begin(vertex); edge < graph.end(vertex); edge++) {
+					int target = graph.target(edge);
+					if (graph.startTime(edge) <= snapshot && snapshot <= graph.endTime(edge) && levels[target] == -1) {
+						levels[target] = levels[vertex] + 1;
+						queue.add(target);
+					}
+				}
+			}
+
+			int numReached = queue.size();
+			if (totalDistance > 0) {
+				centralities[snapshot] = 1.0 * (double)(numReached - 1) * (double)(numReached - 1) / (double)totalDistance / (double)(numVertices - 1);
+			}
+
+		}
+
+		return centralities;
+
+	}
+
+	private TimeEvolvingGraphDecremental load(int numVertices, int numEdges, int numSnapshots, long seed) throws IOException {
+		TimeEvolvingGraphDecremental graph = new TimeEvolvingGraphDecremental();
+		graph.constructGraph(TestGraphs.writeIntervals(this.directory, numVertices, numEdges, numSnapshots, seed));
+		return graph;
+	}
+
+}
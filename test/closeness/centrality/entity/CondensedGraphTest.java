@@ -0,0 +1,148 @@
+package closeness.centrality.entity;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class CondensedGraphTest {
+
+	private static final int NUM_VERTICES = 50;
+	private static final int NUM_SNAPSHOTS = 30;
+	private static final int NUM_EDGES = 1000;
+
+	/**
+	 * The rows hold the edges of their source sorted by start time and then by target, the input is left untouched.
+	 */
+	@Test
+	public void buildSortsRowsByStartTimeAndTarget() {
+
+		// Spare entries past numEdges must be ignored
+		int[][] edges = randomEdges(NUM_EDGES + 10, 7);
+		int[] sources = edges[0];
+		int[] targets = edges[1];
+		int[] startTimes = edges[2];
+		int[] endTimes = edges[3];
+		int[][] input = {sources.clone(), targets.clone(), startTimes.clone(), endTimes.clone()};
+
+		CondensedGraph graph = CondensedGraph.build(NUM_VERTICES, NUM_SNAPSHOTS, NUM_EDGES, sources, targets, startTimes, endTimes);
+		assertArrayEquals(input, new int[][] {sources, targets, startTimes, endTimes});
+
+		assertEquals(NUM_VERTICES, graph.getNumVertices());
+		assertEquals(NUM_EDGES, graph.getNumEdges());
+		assertTrue(graph.hasEndTimes());
+
+		long[] expected = new long[NUM_EDGES];
+		for (int i = 0; i < NUM_EDGES; i++) {
+			expected[i] = key(sources[i], startTimes[i], targets[i], endTimes[i]);
+		}
+		Arrays.sort(expected);
+
+		long[] actual = new long[NUM_EDGES];
+		int numEdges = 0;
+		for (int vertex = 0; vertex < NUM_VERTICES; vertex++) {
+			assertEquals(graph.end(vertex) - graph.begin(vertex), graph.degree(vertex));
+			for (int edge = graph.begin(vertex); edge < graph.end(vertex); edge++) {
+				assertEquals(graph.startTime(edge), graph.timestamp(edge));
+				actual[numEdges++] = key(vertex, graph.startTime(edge), graph.target(edge), graph.endTime(edge));
+			}
+		}
+		assertEquals(NUM_EDGES, numEdges);
+
+		// Keys order by source, start time and target, so the rows come out sorted
+		assertArrayEquals(expected, actual);
+
+	}
+
+	/**
+	 * The edges of a vertex in a snapshot are the prefix of its edges inserted at or before the snapshot.
+	 */
+	@Test
+	public void snapshotViewsArePrefixes() {
+
+		int[][] edges = randomEdges(NUM_EDGES, 8);
+		CondensedGraph graph = CondensedGraph.build(NUM_VERTICES, NUM_SNAPSHOTS, NUM_EDGES, edges[0], edges[1], edges[2], null);
+
+		for (int snapshot = 0; snapshot < NUM_SNAPSHOTS; snapshot++) {
+			SnapshotView view = graph.snapshot(snapshot);
+			assertEquals(snapshot, view.getSnapshot());
+			for (int vertex = 0; vertex < NUM_VERTICES; vertex++) {
+
+				int end = graph.begin(vertex);
+				while (end < graph.end(vertex) && graph.timestamp(end) <= snapshot) {
+					end++;
+				}
+				assertEquals(end, graph.end(vertex, snapshot), "vertex " + vertex + ", snapshot " + snapshot);
+
+				assertEquals(graph.begin(vertex), view.begin(vertex));
+				assertEquals(end, view.end(vertex));
+				assertEquals(end - graph.begin(vertex), view.degree(vertex));
+				for (int edge = view.begin(vertex); edge < view.end(vertex); edge++) {
+					assertEquals(graph.target(edge), view.target(edge));
+				}
+
+			}
+		}
+
+	}
+
+	/**
+	 * The block skipping against a scan of the edges, over rows longer than one block.
+	 */
+	@Test
+	public void nextEndingAtOrAfterMatchesScan() {
+
+		int[][] edges = randomEdges(NUM_EDGES, 9);
+		CondensedGraph graph = CondensedGraph.build(NUM_VERTICES, NUM_SNAPSHOTS, NUM_EDGES, edges[0], edges[1], edges[2], edges[3]);
+
+		for (int vertex = 0; vertex < NUM_VERTICES; vertex++) {
+			for (int snapshot = 0; snapshot < NUM_SNAPSHOTS; snapshot++) {
+				int end = graph.end(vertex, snapshot);
+				for (int edge = graph.begin(vertex); edge <= end; edge++) {
+					for (int time = 0; time < NUM_SNAPSHOTS; time++) {
+
+						int expected = edge;
+						while (expected < end && graph.endTime(expected) < time) {
+							expected++;
+						}
+						assertEquals(expected, graph.nextEndingAtOrAfter(edge, end, time), "vertex " + vertex + ", edge " + edge + ", time " + time);
+
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Sources, targets, start times and end times of random edges, no edge twice.
+	 */
+	private static int[][] randomEdges(int numEdges, long seed) {
+
+		Random random = new Random(seed);
+		Set<Integer> pairs = new HashSet<Integer>();
+
+		int[][] edges = new int[4][numEdges];
+		for (int i = 0; i < numEdges; i++) {
+			do {
+				edges[0][i] = random.nextInt(NUM_VERTICES);
+				edges[1][i] = random.nextInt(NUM_VERTICES);
+			} while (!pairs.add(edges[0][i] * NUM_VERTICES + edges[1][i]));
+			edges[2][i] = random.nextInt(NUM_SNAPSHOTS);
+			edges[3][i] = edges[2][i] + random.nextInt(NUM_SNAPSHOTS - edges[2][i]);
+		}
+		return edges;
+
+	}
+
+	private static long key(int source, int startTime, int target, int endTime) {
+		return (((long) source * NUM_SNAPSHOTS + startTime) * NUM_VERTICES + target) * NUM_SNAPSHOTS + endTime;
+	}
+
+}
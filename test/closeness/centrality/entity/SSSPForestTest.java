@@ -0,0 +1,66 @@
+package closeness.centrality.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import closeness.centrality.TestGraphs;
+import closeness.centrality.io.EdgeListReader;
+import closeness.centrality.io.TegFile;
+
+public class SSSPForestTest {
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * The trees of a forest share one graph, they must end up like trees that each keep their own copy.
+	 */
+	@Test
+	public void forestMatchesPerSourceTrees() throws IOException {
+
+		TegFile file = EdgeListReader.readIntervals(TestGraphs.writeIntervals(this.directory, 150, 900, 25, 5), 1);
+		int numVertices = file.getNumVertices();
+		int numSnapshots = file.getNumSnapshots();
+		DeltaIndex insertions = file.getDeltaIndex(0);
+		DeltaIndex deletions = file.getDeltaIndex(1);
+
+		int[] sources = new int[20];
+		SSSPTree[] trees = new SSSPTree[sources.length];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = i * 7;
+			trees[i] = new SSSPTree(numVertices, insertions, 0, sources[i]);
+		}
+
+		try (SSSPForest forest = new SSSPForest(numVertices, insertions, 0, sources, 3)) {
+
+			for (int snapshot = 0; snapshot < numSnapshots; snapshot++) {
+
+				// Edges are deleted the snapshot after their end time, like getCentralityDynamicIncremental does
+				if (snapshot > 0) {
+					DeltaIndex inserts = snapshot < numSnapshots - 1 ? insertions : null;
+					DeltaIndex deletes = snapshot >= 2 ? deletions : null;
+					forest.applyBatch(inserts, snapshot, deletes, snapshot - 1);
+					for (SSSPTree tree: trees) {
+						tree.applyBatch(inserts, snapshot, deletes, snapshot - 1);
+					}
+				}
+
+				for (int i = 0; i < sources.length; i++) {
+					for (int vertex = 0; vertex < numVertices; vertex++) {
+						assertEquals(trees[i].getLevel(vertex), forest.getLevel(i, vertex), "source " + sources[i] + ", vertex " + vertex + ", snapshot " + snapshot);
+					}
+					assertEquals(trees[i].getCentrality(numVertices), forest.getCentrality(i, numVertices));
+				}
+
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,205 @@
+package closeness.centrality.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import closeness.centrality.TestGraphs;
+import closeness.centrality.io.EdgeListReader;
+import closeness.centrality.io.TegFile;
+
+public class SSSPTreeTest {
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * After every single edge update the tree must match a tree built from scratch on the updated graph.
+	 */
+	@Test
+	public void singleEdgeUpdatesMatchRebuild() {
+
+		Random random = new Random(7);
+
+		for (int trial = 0; trial < 100; trial++) {
+
+			int numVertices = 2 + random.nextInt(30);
+			Map<Integer, Set<Integer>> graph = new HashMap<Integer, Set<Integer>>();
+			for (int vertex = 0; vertex < numVertices; vertex++) {
+				graph.put(vertex, new HashSet<Integer>());
+			}
+			for (int i = random.nextInt(3 * numVertices); i > 0; i--) {
+				addEdge(graph, random.nextInt(numVertices), random.nextInt(numVertices));
+			}
+
+			int source = random.nextInt(numVertices);
+			SSSPTree tree = new SSSPTree(numVertices, copy(graph), source);
+
+			for (int step = 0; step < 100; step++) {
+
+				int from = random.nextInt(numVertices);
+				int to = random.nextInt(numVertices);
+				if (from == to) {
+					continue;
+				}
+
+				if (graph.get(from).contains(to)) {
+					graph.get(from).remove(to);
+					tree.deleteDirectedEdge(from, to);
+				} else {
+					graph.get(from).add(to);
+					tree.insertDirectedEdge(from, to);
+				}
+
+				SSSPTree expected = new SSSPTree(numVertices, copy(graph), source);
+				for (int vertex = 0; vertex < numVertices; vertex++) {
+					assertEquals(expected.getLevel(vertex), tree.getLevel(vertex), "trial " + trial + ", step " + step + ", vertex " + vertex);
+					assertEquals(expected.getParentCount(vertex), tree.getParentCount(vertex), "trial " + trial + ", step " + step + ", vertex " + vertex);
+				}
+				assertEquals(expected.getCentrality(numVertices), tree.getCentrality(numVertices));
+
+				// The running sums must match the levels
+				int numReached = 0;
+				long totalDistance = 0;
+				for (int vertex = 0; vertex < numVertices; vertex++) {
+					if (tree.getLevel(vertex) != Integer.MAX_VALUE) {
+						numReached++;
+						totalDistance += tree.getLevel(vertex);
+					}
+				}
+				assertEquals(numReached, tree.getTotalReachableVertices());
+				assertEquals(totalDistance, tree.getTotalDistance());
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * A batch must end like its insertions and then its deletions applied one edge at a time.
+	 */
+	@Test
+	public void applyBatchMatchesSingleEdgeUpdates() throws IOException {
+
+		TegFile file = EdgeListReader.readIntervals(TestGraphs.writeIntervals(this.directory, 150, 900, 25, 4), 1);
+		int numVertices = file.getNumVertices();
+		int numSnapshots = file.getNumSnapshots();
+		DeltaIndex insertions = file.getDeltaIndex(0);
+		DeltaIndex deletions = file.getDeltaIndex(1);
+
+		for (int source = 0; source < numVertices; source += 10) {
+
+			SSSPTree batched = new SSSPTree(numVertices, insertions, 0, source);
+			SSSPTree single = new SSSPTree(numVertices, insertions, 0, source);
+
+			// Edges are deleted the snapshot after their end time, like getCentralityDynamicIncremental does
+			for (int snapshot = 1; snapshot < numSnapshots; snapshot++) {
+
+				batched.applyBatch(insertions, snapshot, deletions, snapshot - 1);
+
+				for (int edge = insertions.begin(snapshot); edge < insertions.end(snapshot); edge++) {
+					single.insertDirectedEdge(insertions.source(edge), insertions.target(edge));
+				}
+				for (int edge = deletions.begin(snapshot - 1); edge < deletions.end(snapshot - 1); edge++) {
+					single.deleteDirectedEdge(deletions.source(edge), deletions.target(edge));
+				}
+
+				for (int vertex = 0; vertex < numVertices; vertex++) {
+					assertEquals(single.getLevel(vertex), batched.getLevel(vertex), "source " + source + ", snapshot " + snapshot + ", vertex " + vertex);
+					assertEquals(single.getParentCount(vertex), batched.getParentCount(vertex), "source " + source + ", snapshot " + snapshot + ", vertex " + vertex);
+				}
+				assertEquals(single.getTotalDistance(), batched.getTotalDistance());
+				assertEquals(single.getCentrality(numVertices), batched.getCentrality(numVertices));
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * The distances along a path of 70000 vertices add up past Integer.MAX_VALUE.
+	 */
+	@Test
+	public void distanceSumExceedsIntRange() {
+
+		int numVertices = 70000;
+		Map<Integer, Set<Integer>> graph = new HashMap<Integer, Set<Integer>>();
+		for (int vertex = 0; vertex + 1 < numVertices; vertex++) {
+			graph.put(vertex, new HashSet<Integer>());
+			graph.get(vertex).add(vertex + 1);
+		}
+
+		SSSPTree tree = new SSSPTree(numVertices, graph, 0);
+		long totalDistance = (long) numVertices * (numVertices - 1) / 2;
+		assertEquals(totalDistance, tree.getTotalDistance());
+		assertEquals(1.0 * (numVertices - 1) * (numVertices - 1) / totalDistance / (numVertices - 1), tree.getCentrality(numVertices));
+
+		// Cutting the last edge leaves 69999 vertices
+		tree.deleteDirectedEdge(numVertices - 2, numVertices - 1);
+		assertEquals(totalDistance - (numVertices - 1), tree.getTotalDistance());
+
+	}
+
+	/**
+	 * The deprecated map getters must describe the same tree as the level arrays.
+	 */
+	@Test
+	@SuppressWarnings("deprecation")
+	public void deprecatedMapsMatchLevels() {
+
+		Random random = new Random(11);
+		int numVertices = 40;
+		Map<Integer, Set<Integer>> graph = new HashMap<Integer, Set<Integer>>();
+		for (int vertex = 0; vertex < numVertices; vertex++) {
+			graph.put(vertex, new HashSet<Integer>());
+		}
+		for (int i = 0; i < 80; i++) {
+			addEdge(graph, random.nextInt(numVertices), random.nextInt(numVertices));
+		}
+
+		SSSPTree tree = new SSSPTree(copy(graph), 0, new HashMap<Integer, Integer>(), null, null);
+		Map<Integer, Integer> levels = tree.getNodeLevelMap();
+		Map<Integer, Set<Integer>> parents = tree.getParentsMap();
+		Map<Integer, Set<Integer>> children = tree.getChildrenMap();
+
+		for (int vertex = 0; vertex < numVertices; vertex++) {
+			if (tree.getLevel(vertex) == Integer.MAX_VALUE) {
+				assertFalse(levels.containsKey(vertex));
+				continue;
+			}
+			assertEquals(tree.getLevel(vertex), levels.get(vertex).intValue());
+			assertEquals(tree.getParentCount(vertex), parents.get(vertex).size());
+			for (int child: graph.get(vertex)) {
+				assertEquals(tree.getLevel(child) == tree.getLevel(vertex) + 1, children.get(vertex).contains(child));
+			}
+		}
+
+	}
+
+	private static void addEdge(Map<Integer, Set<Integer>> graph, int from, int to) {
+		if (from != to) {
+			graph.get(from).add(to);
+		}
+	}
+
+	private static Map<Integer, Set<Integer>> copy(Map<Integer, Set<Integer>> graph) {
+		Map<Integer, Set<Integer>> copy = new HashMap<Integer, Set<Integer>>();
+		for (Map.Entry<Integer, Set<Integer>> entry: graph.entrySet()) {
+			copy.put(entry.getKey(), new HashSet<Integer>(entry.getValue()));
+		}
+		return copy;
+	}
+
+}
@@ -0,0 +1,111 @@
+package closeness.centrality.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import closeness.centrality.TestGraphs;
+import closeness.centrality.io.EdgeListReader;
+
+public class SnapshotComponentsTest {
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * The sweep against a BFS over the undirected edges of each snapshot.
+	 */
+	@Test
+	public void sweepMatchesComponentsOfEachSnapshot() throws IOException {
+
+		// Sparse enough to keep many components in the early snapshots
+		CondensedGraph graph = EdgeListReader.readInsertions(TestGraphs.writeInsertions(this.directory, 300, 320, 30, 6), false, 1).getCondensedGraph();
+		int numVertices = graph.getNumVertices();
+		int numSnapshots = 30;
+
+		SnapshotComponents components = SnapshotComponents.sweep(graph, numSnapshots);
+		assertEquals(numVertices, components.getNumVertices());
+		assertEquals(numSnapshots, components.getNumSnapshots());
+
+		int[][] sizes = new int[numVertices][numSnapshots];
+		for (int vertex = 0; vertex < numVertices; vertex++) {
+			components.getComponentSizes(vertex, sizes[vertex]);
+		}
+
+		for (int snapshot = 0; snapshot < numSnapshots; snapshot++) {
+
+			int[] labels = componentLabels(graph, snapshot);
+			int[] expected = new int[numVertices];
+			int numComponents = 0;
+			for (int vertex = 0; vertex < numVertices; vertex++) {
+				expected[labels[vertex]]++;
+				if (labels[vertex] == vertex) {
+					numComponents++;
+				}
+			}
+			assertEquals(numComponents, components.getNumComponents(snapshot), "snapshot " + snapshot);
+
+			for (int vertex = 0; vertex < numVertices; vertex++) {
+				assertEquals(expected[labels[vertex]], components.getComponentSize(vertex, snapshot), "vertex " + vertex + ", snapshot " + snapshot);
+				assertEquals(expected[labels[vertex]], sizes[vertex][snapshot], "vertex " + vertex + ", snapshot " + snapshot);
+
+				// Same id as the first vertex of its component
+				int id = components.getComponentId(vertex, snapshot);
+				assertEquals(components.getComponentId(labels[vertex], snapshot), id, "vertex " + vertex + ", snapshot " + snapshot);
+				assertEquals(labels[vertex], labels[id], "vertex " + vertex + ", snapshot " + snapshot);
+			}
+
+		}
+
+	}
+
+	/**
+	 * Smallest vertex of the weakly connected component of every vertex, by BFS over the edges inserted at or before
+	 * the snapshot.
+	 */
+	private static int[] componentLabels(CondensedGraph graph, int snapshot) {
+
+		int numVertices = graph.getNumVertices();
+		List<List<Integer>> neighbors = new ArrayList<List<Integer>>();
+		for (int vertex = 0; vertex < numVertices; vertex++) {
+			neighbors.add(new ArrayList<Integer>());
+		}
+		for (int vertex = 0; vertex < numVertices; vertex++) {
+			for (int edge = graph.begin(vertex); edge < graph.end(vertex); edge++) {
+				if (graph.timestamp(edge) <= snapshot) {
+					neighbors.get(vertex).add(graph.target(edge));
+					neighbors.get(graph.target(edge)).add(vertex);
+				}
+			}
+		}
+
+		int[] labels = new int[numVertices];
+		Arrays.fill(labels, -1);
+		for (int root = 0; root < numVertices; root++) {
+			if (labels[root] != -1) {
+				continue;
+			}
+			List<Integer> component = new ArrayList<Integer>();
+			component.add(root);
+			labels[root] = root;
+			for (int i = 0; i < component.size(); i++) {
+				for (int neighbor: neighbors.get(component.get(i))) {
+					if (labels[neighbor] == -1) {
+						labels[neighbor] = root;
+						component.add(neighbor);
+					}
+				}
+			}
+		}
+		return labels;
+
+	}
+
+}
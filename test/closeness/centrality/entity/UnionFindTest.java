@@ -0,0 +1,73 @@
+package closeness.centrality.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class UnionFindTest {
+
+	/**
+	 * Random unions against a plain array of component labels that relabels a whole component on every merge.
+	 */
+	@Test
+	public void unionsMatchRelabeling() {
+
+		int numVertices = 500;
+		Random random = new Random(3);
+
+		UnionFind union = new UnionFind(numVertices);
+		int[] labels = new int[numVertices];
+		for (int vertex = 0; vertex < numVertices; vertex++) {
+			labels[vertex] = vertex;
+		}
+		int numComponents = numVertices;
+
+		for (int step = 0; step < 600; step++) {
+
+			int first = random.nextInt(numVertices);
+			int second = random.nextInt(numVertices);
+			boolean separate = labels[first] != labels[second];
+			int firstSize = count(labels, labels[first]);
+			int secondSize = count(labels, labels[second]);
+
+			int root = union.union(first, second);
+			if (!separate) {
+				assertEquals(-1, root);
+			} else {
+				// The root of the larger component survives
+				assertEquals(firstSize + secondSize, union.getSize(root));
+				assertEquals(root, union.find(firstSize >= secondSize ? first : second));
+				int merged = labels[second];
+				for (int vertex = 0; vertex < numVertices; vertex++) {
+					if (labels[vertex] == merged) {
+						labels[vertex] = labels[first];
+					}
+				}
+				numComponents--;
+			}
+
+			assertEquals(numComponents, union.getNumComponents());
+			for (int i = 0; i < 20; i++) {
+				int vertex = random.nextInt(numVertices);
+				int other = random.nextInt(numVertices);
+				assertEquals(labels[vertex] == labels[other], union.connected(vertex, other));
+				assertEquals(count(labels, labels[vertex]), union.getSize(vertex));
+			}
+
+		}
+
+	}
+
+	private static int count(int[] labels, int label) {
+		int count = 0;
+		for (int value: labels) {
+			if (value == label) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
@@ -0,0 +1,64 @@
+package closeness.centrality.generator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import closeness.centrality.entity.CondensedGraph;
+import closeness.centrality.io.EdgeListReader;
+import closeness.centrality.io.TegFile;
+
+public class RmatGeneratorTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void outputDependsOnlyOnSeed() throws IOException {
+
+		Path single = this.directory.resolve("single.txt");
+		Path parallel = this.directory.resolve("parallel.txt");
+		generator(1).writeEdgeList(single.toString());
+		generator(4).writeEdgeList(parallel.toString());
+
+		assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(parallel));
+
+	}
+
+	@Test
+	public void binaryMatchesEdgeList() throws IOException {
+
+		String text = this.directory.resolve("graph.txt").toString();
+		String binary = this.directory.resolve("graph.teg").toString();
+		generator(2).writeEdgeList(text);
+		generator(2).writeBinary(binary);
+
+		TegFile expected = EdgeListReader.readIntervals(text, 1);
+		TegFile actual = TegFile.read(binary);
+		assertEquals(expected.getNumVertices(), actual.getNumVertices());
+		assertEquals(expected.getNumSnapshots(), actual.getNumSnapshots());
+
+		CondensedGraph expectedGraph = expected.getCondensedGraph();
+		CondensedGraph actualGraph = actual.getCondensedGraph();
+		assertArrayEquals(expectedGraph.getOffsets(), actualGraph.getOffsets());
+		assertArrayEquals(expectedGraph.getTargets(), actualGraph.getTargets());
+		assertArrayEquals(expectedGraph.getStartTimes(), actualGraph.getStartTimes());
+		assertArrayEquals(expectedGraph.getEndTimes(), actualGraph.getEndTimes());
+		assertArrayEquals(expected.getIds().getVertexIds(), actual.getIds().getVertexIds());
+
+	}
+
+	private static RmatGenerator generator(int parallelism) {
+		RmatGenerator generator = new RmatGenerator(10, 8, 30, 42);
+		generator.setLifetime(0.2);
+		generator.setParallelism(parallelism);
+		return generator;
+	}
+
+}
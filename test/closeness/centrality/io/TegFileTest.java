@@ -0,0 +1,119 @@
+package closeness.centrality.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import closeness.centrality.TestGraphs;
+import closeness.centrality.entity.CondensedGraph;
+import closeness.centrality.entity.DeltaIndex;
+import closeness.centrality.entity.IdMapping;
+
+public class TegFileTest {
+
+	private static final int NUM_VERTICES = 300;
+	private static final int NUM_SNAPSHOTS = 40;
+	private static final int NUM_EDGES = 2000;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	public void insertionsRoundTrip() throws IOException {
+		assertRoundTrip(randomFile(false, 1), this.directory.resolve("insertions.teg").toString());
+	}
+
+	@Test
+	public void intervalsRoundTrip() throws IOException {
+		assertRoundTrip(randomFile(true, 2), this.directory.resolve("intervals.teg").toString());
+	}
+
+	/**
+	 * The raw ids of an edge list map to their ranks, and the file keeps them.
+	 */
+	@Test
+	public void rawIdsRoundTrip() throws IOException {
+
+		TegFile file = EdgeListReader.readInsertions(TestGraphs.writeInsertions(this.directory, NUM_VERTICES, NUM_EDGES, NUM_SNAPSHOTS, 3), false, 1);
+		assertEquals(NUM_VERTICES, file.getNumVertices());
+		assertEquals(NUM_SNAPSHOTS, file.getNumSnapshots());
+
+		IdMapping ids = file.getIds();
+		for (int vertex = 0; vertex < NUM_VERTICES; vertex++) {
+			assertEquals(TestGraphs.vertexId(vertex), ids.getVertexId(vertex));
+			assertEquals(vertex, ids.getVertex(TestGraphs.vertexId(vertex)));
+		}
+		for (int snapshot = 0; snapshot < NUM_SNAPSHOTS; snapshot++) {
+			assertEquals(TestGraphs.timestamp(snapshot), ids.getTimestamp(snapshot));
+			assertEquals(snapshot, ids.getSnapshot(TestGraphs.timestamp(snapshot)));
+		}
+
+		assertRoundTrip(file, this.directory.resolve("raw-ids.teg").toString());
+
+	}
+
+	/**
+	 * A random graph laid out like the engines do, insertions only or with a second delta index of the end times.
+	 */
+	private static TegFile randomFile(boolean withEndTimes, long seed) {
+
+		Random random = new Random(seed);
+		int[] sources = new int[NUM_EDGES];
+		int[] targets = new int[NUM_EDGES];
+		int[] startTimes = new int[NUM_EDGES];
+		int[] endTimes = new int[NUM_EDGES];
+		for (int i = 0; i < NUM_EDGES; i++) {
+			sources[i] = random.nextInt(NUM_VERTICES);
+			targets[i] = random.nextInt(NUM_VERTICES);
+			startTimes[i] = random.nextInt(NUM_SNAPSHOTS);
+			endTimes[i] = startTimes[i] + random.nextInt(NUM_SNAPSHOTS - startTimes[i]);
+		}
+
+		DeltaIndex insertions = DeltaIndex.build(NUM_VERTICES, NUM_SNAPSHOTS, NUM_EDGES, sources, targets, startTimes);
+		if (!withEndTimes) {
+			CondensedGraph graph = CondensedGraph.build(NUM_VERTICES, NUM_SNAPSHOTS, NUM_EDGES, sources, targets, startTimes, null);
+			return new TegFile(NUM_VERTICES, NUM_SNAPSHOTS, graph, insertions);
+		}
+
+		CondensedGraph graph = CondensedGraph.build(NUM_VERTICES, NUM_SNAPSHOTS, NUM_EDGES, sources, targets, startTimes, endTimes);
+		DeltaIndex deletions = DeltaIndex.build(NUM_VERTICES, NUM_SNAPSHOTS, NUM_EDGES, sources, targets, endTimes);
+		return new TegFile(NUM_VERTICES, NUM_SNAPSHOTS, graph, insertions, deletions);
+
+	}
+
+	private static void assertRoundTrip(TegFile expected, String path) throws IOException {
+
+		expected.write(path);
+		TegFile actual = TegFile.read(path);
+
+		assertEquals(expected.getNumVertices(), actual.getNumVertices());
+		assertEquals(expected.getNumSnapshots(), actual.getNumSnapshots());
+
+		CondensedGraph expectedGraph = expected.getCondensedGraph();
+		CondensedGraph actualGraph = actual.getCondensedGraph();
+		assertArrayEquals(expectedGraph.getOffsets(), actualGraph.getOffsets());
+		assertArrayEquals(expectedGraph.getTargets(), actualGraph.getTargets());
+		assertArrayEquals(expectedGraph.getStartTimes(), actualGraph.getStartTimes());
+		assertArrayEquals(expectedGraph.getEndTimes(), actualGraph.getEndTimes());
+
+		assertEquals(expected.getNumDeltaIndexes(), actual.getNumDeltaIndexes());
+		for (int i = 0; i < expected.getNumDeltaIndexes(); i++) {
+			DeltaIndex expectedIndex = expected.getDeltaIndex(i);
+			DeltaIndex actualIndex = actual.getDeltaIndex(i);
+			assertArrayEquals(expectedIndex.getOffsets(), actualIndex.getOffsets());
+			assertArrayEquals(expectedIndex.getSources(), actualIndex.getSources());
+			assertArrayEquals(expectedIndex.getTargets(), actualIndex.getTargets());
+		}
+
+		assertArrayEquals(expected.getIds().getVertexIds(), actual.getIds().getVertexIds());
+		assertArrayEquals(expected.getIds().getTimestamps(), actual.getIds().getTimestamps());
+
+	}
+
+}
@@ -0,0 +1,121 @@
+package closeness.centrality.topk;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import closeness.centrality.TestGraphs;
+
+public class TimeEvolvingGraphInsertionOnlyTest {
+
+	private static final int NUM_VERTICES = 200;
+	private static final int NUM_SNAPSHOTS = 20;
+
+	@TempDir
+	Path directory;
+
+	/**
+	 * The range based queries run one BFS for all the snapshots, they must match a BFS per snapshot.
+	 */
+	@Test
+	public void rangeBasedMatchesSnapshotBased() throws IOException {
+
+		try (TimeEvolvingGraphInsertionOnly graph = this.load(1)) {
+
+			for (int source = 0; source < graph.getNumVertices(); source++) {
+				double[] expected = graph.getCentralitySnapshotBased(source, false);
+				assertArrayEquals(expected, graph.getCentralitySnapshotBased(source, true), "source " + source);
+				assertArrayEquals(expected, graph.getCentralityRangeBased(source), "source " + source);
+				assertArrayEquals(expected, graph.getCentralityRangeBufferUpdate(source), "source " + source);
+			}
+
+		}
+
+	}
+
+	/**
+	 * The snapshots are split among the threads, each with its own workspace.
+	 */
+	@Test
+	public void parallelSnapshotBasedMatchesSingleThread() throws IOException {
+
+		try (TimeEvolvingGraphInsertionOnly graph = this.load(2)) {
+
+			double[][][] expected = new double[graph.getNumVertices()][][];
+			graph.setParallelism(1);
+			for (int source = 0; source < graph.getNumVertices(); source++) {
+				expected[source] = new double[][] {graph.getCentralitySnapshotBased(source, false), graph.getCentralitySnapshotBased(source, true)};
+			}
+
+			graph.setParallelism(4);
+			for (int source = 0; source < graph.getNumVertices(); source++) {
+				assertArrayEquals(expected[source][0], graph.getCentralitySnapshotBased(source, false), "source " + source);
+				assertArrayEquals(expected[source][1], graph.getCentralitySnapshotBased(source, true), "source " + source);
+			}
+
+		}
+
+	}
+
+	/**
+	 * From one source per batch, as when memory is short, up to full batches of 64 and a partial last one.
+	 */
+	@Test
+	public void multiSourceMatchesBufferUpdate() throws IOException {
+
+		try (TimeEvolvingGraphInsertionOnly graph = this.load(3)) {
+
+			int[] sources = new int[graph.getNumVertices()];
+			for (int i = 0; i < sources.length; i++) {
+				sources[i] = i;
+			}
+
+			long perSource = 4L * graph.getNumVertices() + 24L * graph.getNumSnapshots();
+			long fixed = 36L * graph.getNumVertices();
+			for (long memory: new long[] {1, fixed + 7 * perSource, Long.MAX_VALUE}) {
+				graph.setMultiSourceMemory(memory);
+				double[][] centralities = graph.getCentralityMultiSource(sources);
+				for (int i = 0; i < sources.length; i++) {
+					assertArrayEquals(graph.getCentralityRangeBufferUpdate(sources[i]), centralities[i], "source " + sources[i] + ", memory " + memory);
+				}
+			}
+
+		}
+
+	}
+
+	@Test
+	public void prunedTopKMatchesBruteForce() throws IOException {
+
+		try (TimeEvolvingGraphInsertionOnly graph = this.load(4)) {
+
+			graph.setParallelism(2);
+			List<List<VertexCentrality>> expected = graph.getTopKBruteForce(10, NUM_VERTICES);
+			List<List<VertexCentrality>> actual = graph.getTopKCentralityPruned(10, NUM_VERTICES);
+
+			assertEquals(expected.size(), actual.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).size(), actual.get(i).size());
+				for (int rank = 0; rank < expected.get(i).size(); rank++) {
+					assertEquals(expected.get(i).get(rank).getId(), actual.get(i).get(rank).getId(), "snapshot " + i + ", rank " + rank);
+					assertEquals(expected.get(i).get(rank).getCentrality(), actual.get(i).get(rank).getCentrality(), "snapshot " + i + ", rank " + rank);
+				}
+			}
+
+		}
+
+	}
+
+	private TimeEvolvingGraphInsertionOnly load(long seed) throws IOException {
+		TimeEvolvingGraphInsertionOnly graph = new TimeEvolvingGraphInsertionOnly();
+		graph.constructGraph(TestGraphs.writeInsertions(this.directory, NUM_VERTICES, 800, NUM_SNAPSHOTS, seed), true);
+		return graph;
+	}
+
+}